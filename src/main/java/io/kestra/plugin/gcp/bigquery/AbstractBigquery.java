@@ -7,8 +7,10 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import net.jodah.failsafe.Failsafe;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.tasks.retrys.AbstractRetry;
 import io.kestra.core.models.tasks.retrys.Exponential;
 import io.kestra.core.runners.RunContext;
@@ -92,11 +94,30 @@ abstract public class AbstractBigquery extends AbstractTask {
             .getService();
     }
 
-    protected Job waitForJob(Logger logger, Callable<Job> createJob) {
-        return this.waitForJob(logger, createJob, false);
+    protected Job waitForJob(RunContext runContext, Callable<Job> createJob) {
+        return this.waitForJob(runContext, createJob, false);
     }
 
-    protected Job waitForJob(Logger logger, Callable<Job> createJob, Boolean dryRun) {
+    protected Job waitForJob(RunContext runContext, Callable<Job> createJob, Boolean dryRun) {
+        return this.waitForJob(runContext, createJob, dryRun, true);
+    }
+
+    /**
+     * Create the job with automatic retry and, if {@code wait} is set, wait for its completion.
+     * Without {@code wait}, the job is returned as soon as it's created and must be awaited elsewhere, see {@link WaitForJobs}.
+     */
+    protected Job waitForJob(RunContext runContext, Callable<Job> createJob, Boolean dryRun, Boolean wait) {
+        return this.waitForJob(runContext, createJob, dryRun, wait, null);
+    }
+
+    /**
+     * Same as {@link #waitForJob(RunContext, Callable, Boolean, Boolean)} for a job awaited outside the task thread:
+     * the job is kept in {@code running} until its completion and is not cancelled on interruption, the task thread
+     * must cancel the jobs left in it with {@link #cancel(RunContext, Job)}.
+     */
+    protected Job waitForJob(RunContext runContext, Callable<Job> createJob, Boolean dryRun, Boolean wait, Map<JobId, Job> running) {
+        Logger logger = runContext.logger();
+
         return Failsafe
             .with(AbstractRetry.<Job>retryPolicy(this.getRetryAuto() != null ? this.getRetry() : Exponential.builder()
                     .type("exponential")
@@ -130,8 +151,15 @@ abstract public class AbstractBigquery extends AbstractTask {
 
                     logger.debug("Starting job '{}'", job.getJobId());
 
-                    if (!dryRun) {
-                        job = job.waitFor();
+                    if (!dryRun && wait) {
+                        if (running != null) {
+                            JobId jobId = job.getJobId();
+                            running.put(jobId, job);
+                            job = job.waitFor();
+                            running.remove(jobId);
+                        } else {
+                            job = waitFor(runContext, job);
+                        }
                     }
 
                     BigQueryService.handleErrors(job, logger);
@@ -165,6 +193,51 @@ abstract public class AbstractBigquery extends AbstractTask {
             });
     }
 
+    /**
+     * Wait for the end of the job, cancelling it if the task thread is interrupted (killed execution or task timeout)
+     * so that the job doesn't keep running without anyone waiting for it.
+     */
+    static Job waitFor(RunContext runContext, Job job) throws InterruptedException {
+        try {
+            return job.waitFor();
+        } catch (InterruptedException e) {
+            cancel(runContext, job);
+
+            throw e;
+        } catch (RuntimeException e) {
+            // an interruption during a call is reported by the client as a BigQueryException
+            if (interrupted(e)) {
+                cancel(runContext, job);
+                Thread.currentThread().interrupt();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the failure comes from an interruption of the current thread, either the interrupt flag or an
+     * {@link InterruptedException} in the cause chain. The flag is cleared so the jobs can be cancelled, the caller must restore it.
+     */
+    static boolean interrupted(Throwable e) {
+        return Thread.interrupted() || ExceptionUtils.indexOfType(e, InterruptedException.class) != -1;
+    }
+
+    static void cancel(RunContext runContext, Job job) {
+        Logger logger = runContext.logger();
+
+        try {
+            if (job.cancel()) {
+                logger.warn("Task interrupted, cancelled job '{}'", job.getJobId().getJob());
+                runContext.metric(Counter.of("job.cancelled", 1, "type", job.getConfiguration().getType().name()));
+            } else {
+                logger.warn("Task interrupted, unable to cancel job '{}', it no longer exists", job.getJobId().getJob());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Task interrupted, unable to cancel job '{}'", job.getJobId().getJob(), e);
+        }
+    }
+
     private boolean shouldRetry(Throwable failure, Logger logger) {
         if (!(failure instanceof BigQueryException)) {
             logger.warn("Cancelled retrying, unknown exception type {}", failure.getClass(), failure);
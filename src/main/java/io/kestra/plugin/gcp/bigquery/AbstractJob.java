@@ -12,7 +12,7 @@ import java.util.Map;
 @EqualsAndHashCode
 @Getter
 @NoArgsConstructor
-public abstract class AbstractJob extends AbstractBigquery implements AbstractJobInterface {
+public abstract class AbstractJob extends AbstractBigquery implements AbstractJobInterface, AsyncJobInterface {
     protected String destinationTable;
 
     protected JobInfo.WriteDisposition writeDisposition;
@@ -25,4 +25,10 @@ public abstract class AbstractJob extends AbstractBigquery implements AbstractJo
 
     @Builder.Default
     protected Boolean dryRun = false;
+
+    @Builder.Default
+    protected Boolean wait = true;
+
+    @Builder.Default
+    protected Boolean deterministicJobId = false;
 }
@@ -23,7 +23,7 @@ import java.util.stream.Collectors;
 @Getter
 @NoArgsConstructor
 @LoadCsvValidation
-abstract public class AbstractLoad extends AbstractBigquery implements RunnableTask<AbstractLoad.Output> {
+abstract public class AbstractLoad extends AbstractBigquery implements RunnableTask<AbstractLoad.Output>, AsyncJobInterface {
     @Schema(
         title = "The table where to put query results.",
         description = "If not provided, a new table is created."
@@ -130,6 +130,12 @@ abstract public class AbstractLoad extends AbstractBigquery implements RunnableT
     )
     private AvroOptions avroOptions;
 
+    @Builder.Default
+    private Boolean deterministicJobId = false;
+
+    @Builder.Default
+    private Boolean wait = true;
+
     @SuppressWarnings("DuplicatedCode")
     protected void setOptions(LoadConfiguration.Builder builder, RunContext runContext) throws IllegalVariableEvaluationException, JsonProcessingException {
         if (this.clusteringFields != null) {
@@ -222,6 +228,14 @@ abstract public class AbstractLoad extends AbstractBigquery implements RunnableT
     }
 
     protected Output outputs(RunContext runContext, LoadConfiguration configuration, Job job) throws InterruptedException, IllegalVariableEvaluationException, BigQueryException {
+        if (!this.wait) {
+            runContext.logger().info("Job '{}' created, not waiting for its completion", job.getJobId().getJob());
+
+            return Output.builder()
+                .jobId(job.getJobId().getJob())
+                .build();
+        }
+
         JobStatistics.LoadStatistics stats = job.getStatistics();
         this.metrics(runContext, stats, job);
 
@@ -0,0 +1,14 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public interface AsyncJobInterface extends JobInterface {
+    @Schema(
+        title = "Whether to wait for the end of the job.",
+        description = "If set to false, the task ends as soon as the job is created and only outputs the job id, " +
+            "the job can then be awaited with the `io.kestra.plugin.gcp.bigquery.WaitForJobs` task."
+    )
+    @PluginProperty
+    Boolean getWait();
+}
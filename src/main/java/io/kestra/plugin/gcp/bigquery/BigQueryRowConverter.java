@@ -0,0 +1,272 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.generic.GenericRecord;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Convert BigQuery rows to the java types stored by kestra.
+ * The decoders are resolved once from the schema, rows are then converted by position.
+ */
+public class BigQueryRowConverter {
+    private static final Pattern GEOGRAPHY_POINT = Pattern.compile("^POINT\\((-?[0-9.]+) (-?[0-9.]+)\\)$");
+
+    private final FieldList fields;
+    private final String[] names;
+    private final int[] positions;
+    private final List<Function<Object, Object>> decoders;
+
+    private BigQueryRowConverter(FieldList fields, String[] names, int[] positions, List<Function<Object, Object>> decoders) {
+        this.fields = fields;
+        this.names = names;
+        this.positions = positions;
+        this.decoders = decoders;
+    }
+
+    /**
+     * Build a converter for the rows returned by the REST API.
+     */
+    public static BigQueryRowConverter of(FieldList fields) {
+        String[] names = new String[fields.size()];
+        int[] positions = new int[fields.size()];
+        List<Function<Object, Object>> decoders = new ArrayList<>(fields.size());
+
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+
+            names[i] = field.getName();
+            positions[i] = i;
+            decoders.add(fieldValueDecoder(field));
+        }
+
+        return new BigQueryRowConverter(fields, names, positions, decoders);
+    }
+
+    /**
+     * Build a converter for Avro records as returned by the Storage Read API or by an Avro extract.
+     *
+     * @param fields the BigQuery fields of the table
+     * @param avroSchema the Avro record schema, only the fields present in it are converted
+     */
+    public static BigQueryRowConverter of(FieldList fields, org.apache.avro.Schema avroSchema) {
+        List<org.apache.avro.Schema.Field> avroFields = avroSchema.getFields();
+
+        List<Field> converted = new ArrayList<>(avroFields.size());
+        String[] names = new String[avroFields.size()];
+        int[] positions = new int[avroFields.size()];
+        List<Function<Object, Object>> decoders = new ArrayList<>(avroFields.size());
+
+        for (int i = 0; i < avroFields.size(); i++) {
+            org.apache.avro.Schema.Field avroField = avroFields.get(i);
+            Field field = fields.get(avroField.name());
+
+            converted.add(field);
+            names[i] = field.getName();
+            positions[i] = avroField.pos();
+            decoders.add(avroDecoder(field, nonNull(avroField.schema())));
+        }
+
+        return new BigQueryRowConverter(FieldList.of(converted), names, positions, decoders);
+    }
+
+    /**
+     * The fields of the converted rows, in the order of the row keys.
+     */
+    public FieldList getFields() {
+        return this.fields;
+    }
+
+    public Map<String, Object> convert(FieldValueList values) {
+        Map<String, Object> row = new LinkedHashMap<>((int) (this.names.length / 0.75f) + 1);
+
+        for (int i = 0; i < this.names.length; i++) {
+            row.put(this.names[i], this.decoders.get(i).apply(values.get(this.positions[i])));
+        }
+
+        return row;
+    }
+
+    public Map<String, Object> convert(GenericRecord record) {
+        Map<String, Object> row = new LinkedHashMap<>((int) (this.names.length / 0.75f) + 1);
+
+        for (int i = 0; i < this.names.length; i++) {
+            Object value = record.get(this.positions[i]);
+            row.put(this.names[i], value == null ? null : this.decoders.get(i).apply(value));
+        }
+
+        return row;
+    }
+
+    private static Function<Object, Object> fieldValueDecoder(Field field) {
+        if (field.getMode() == Field.Mode.REPEATED) {
+            Function<Object, Object> element = fieldValueScalarDecoder(field);
+
+            return value -> {
+                List<FieldValue> values = ((FieldValue) value).getRepeatedValue();
+                List<Object> list = new ArrayList<>(values.size());
+                for (FieldValue item : values) {
+                    list.add(element.apply(item));
+                }
+
+                return list;
+            };
+        }
+
+        return fieldValueScalarDecoder(field);
+    }
+
+    private static Function<Object, Object> fieldValueScalarDecoder(Field field) {
+        Function<FieldValue, Object> decoder;
+
+        switch (field.getType().getStandardType()) {
+            case BOOL:
+                decoder = FieldValue::getBooleanValue;
+                break;
+            case BYTES:
+                decoder = FieldValue::getBytesValue;
+                break;
+            case DATE:
+                decoder = value -> LocalDate.parse(value.getStringValue());
+                break;
+            case DATETIME:
+                decoder = value -> Instant.parse(value.getStringValue() + "Z");
+                break;
+            case FLOAT64:
+            case NUMERIC:
+            case BIGNUMERIC:
+                decoder = FieldValue::getDoubleValue;
+                break;
+            case GEOGRAPHY:
+                decoder = value -> geography(value.getStringValue());
+                break;
+            case INT64:
+                decoder = FieldValue::getLongValue;
+                break;
+            case STRUCT:
+                BigQueryRowConverter converter = BigQueryRowConverter.of(field.getSubFields());
+                decoder = value -> converter.convert(value.getRecordValue());
+                break;
+            case STRING:
+            case JSON:
+                decoder = FieldValue::getStringValue;
+                break;
+            case TIME:
+                decoder = value -> LocalTime.parse(value.getStringValue());
+                break;
+            case TIMESTAMP:
+                decoder = FieldValue::getTimestampInstant;
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid type '" + field.getType() + "'");
+        }
+
+        return value -> {
+            FieldValue fieldValue = (FieldValue) value;
+            return fieldValue.isNull() ? null : decoder.apply(fieldValue);
+        };
+    }
+
+    private static Function<Object, Object> avroDecoder(Field field, org.apache.avro.Schema schema) {
+        if (field.getMode() == Field.Mode.REPEATED) {
+            Function<Object, Object> element = avroScalarDecoder(field, nonNull(schema.getElementType()));
+
+            return value -> {
+                Collection<?> values = (Collection<?>) value;
+                List<Object> list = new ArrayList<>(values.size());
+                for (Object item : values) {
+                    list.add(item == null ? null : element.apply(item));
+                }
+
+                return list;
+            };
+        }
+
+        return avroScalarDecoder(field, schema);
+    }
+
+    private static Function<Object, Object> avroScalarDecoder(Field field, org.apache.avro.Schema schema) {
+        switch (field.getType().getStandardType()) {
+            case BOOL:
+            case INT64:
+            case FLOAT64:
+                return value -> value;
+            case STRING:
+            case JSON:
+                return Object::toString;
+            case BYTES:
+                return value -> bytes((ByteBuffer) value);
+            case DATE:
+                return value -> value instanceof Integer ? LocalDate.ofEpochDay((Integer) value) : LocalDate.parse(value.toString());
+            case DATETIME:
+                return value -> Instant.parse(value + "Z");
+            case TIME:
+                return value -> value instanceof Long ? LocalTime.ofNanoOfDay((Long) value * 1000) : LocalTime.parse(value.toString());
+            case TIMESTAMP:
+                return value -> {
+                    long micros = (Long) value;
+                    return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000);
+                };
+            case NUMERIC:
+            case BIGNUMERIC:
+                int scale = schema.getLogicalType() instanceof LogicalTypes.Decimal ?
+                    ((LogicalTypes.Decimal) schema.getLogicalType()).getScale() :
+                    9;
+
+                return value -> new BigDecimal(new BigInteger(bytes((ByteBuffer) value)), scale).doubleValue();
+            case GEOGRAPHY:
+                return value -> geography(value.toString());
+            case STRUCT:
+                BigQueryRowConverter converter = BigQueryRowConverter.of(field.getSubFields(), schema);
+
+                return value -> converter.convert((GenericRecord) value);
+            default:
+                throw new IllegalArgumentException("Invalid type '" + field.getType() + "'");
+        }
+    }
+
+    static List<Double> geography(String value) {
+        Matcher m = GEOGRAPHY_POINT.matcher(value);
+
+        if (m.find()) {
+            return Arrays.asList(
+                Double.parseDouble(m.group(1)),
+                Double.parseDouble(m.group(2))
+            );
+        }
+
+        throw new IllegalFormatFlagsException("Couldn't match '" + value + "'");
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+
+        return bytes;
+    }
+
+    static org.apache.avro.Schema nonNull(org.apache.avro.Schema schema) {
+        if (schema.getType() != org.apache.avro.Schema.Type.UNION) {
+            return schema;
+        }
+
+        return schema.getTypes()
+            .stream()
+            .filter(type -> type.getType() != org.apache.avro.Schema.Type.NULL)
+            .findFirst()
+            .orElse(schema);
+    }
+}
@@ -1,23 +1,117 @@
 package io.kestra.plugin.gcp.bigquery;
 
-import com.google.cloud.bigquery.BigQueryError;
-import com.google.cloud.bigquery.Job;
-import com.google.cloud.bigquery.JobId;
-import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.*;
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.runners.RunContext;
 import org.slf4j.Logger;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.math.BigDecimal;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 public class BigQueryService {
     public static JobId jobId(RunContext runContext, AbstractBigquery abstractBigquery) throws IllegalVariableEvaluationException {
-        return JobId.newBuilder()
+        return jobId(runContext, abstractBigquery, null);
+    }
+
+    /**
+     * @param suffix appended to the deterministic job id, to distinguish the jobs of a task that starts many jobs
+     */
+    public static JobId jobId(RunContext runContext, AbstractBigquery abstractBigquery, String suffix) throws IllegalVariableEvaluationException {
+        JobId.Builder builder = JobId.newBuilder()
             .setProject(runContext.render(abstractBigquery.getProjectId()))
-            .setLocation(runContext.render(abstractBigquery.getLocation()))
-            .build();
+            .setLocation(runContext.render(abstractBigquery.getLocation()));
+
+        if (abstractBigquery instanceof JobInterface && Boolean.TRUE.equals(((JobInterface) abstractBigquery).getDeterministicJobId())) {
+            builder.setJob(deterministicJobId(runContext) + (suffix != null ? "_" + suffix : ""));
+        }
+
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String deterministicJobId(RunContext runContext) {
+        var executionProperties = (Map<String, Object>) runContext.getVariables().get("execution");
+        var taskRunProperties = (Map<String, Object>) runContext.getVariables().get("taskrun");
+
+        if (executionProperties == null || taskRunProperties == null) {
+            throw new IllegalArgumentException("Deterministic job id is only available in an execution");
+        }
+
+        String jobId = "kestra_" + executionProperties.get("id") +
+            "_" + taskRunProperties.get("id") +
+            "_" + Objects.toString(taskRunProperties.get("attemptsCount"), "0");
+
+        // Job ids can only contain letters, numbers, underscores and dashes
+        return jobId.replaceAll("[^a-zA-Z0-9_-]", "_");
+    }
+
+    /**
+     * Create the job, or reattach to it if a job with the same id already exists and didn't fail.
+     * If the existing job failed, a new job is created with a numbered suffix, so that retries of a deterministic job id
+     * don't reattach to a failed job.
+     */
+    public static Job create(BigQuery connection, JobInfo jobInfo, Logger logger) {
+        JobId jobId = jobInfo.getJobId();
+
+        if (jobId == null || jobId.getJob() == null) {
+            return connection.create(jobInfo);
+        }
+
+        for (int retry = 0; ; retry++) {
+            JobId current = retry == 0 ? jobId : JobId.newBuilder()
+                .setProject(jobId.getProject())
+                .setLocation(jobId.getLocation())
+                .setJob(jobId.getJob() + "_" + retry)
+                .build();
+
+            try {
+                return connection.create(jobInfo.toBuilder().setJobId(current).build());
+            } catch (com.google.cloud.bigquery.BigQueryException e) {
+                if (e.getCode() != 409) {
+                    throw e;
+                }
+
+                Job existing = connection.getJob(current);
+                if (existing == null) {
+                    throw e;
+                }
+
+                if (existing.getStatus().getError() == null) {
+                    logger.info("Job '{}' already exists, reattaching to it", current.getJob());
+                    return existing;
+                }
+
+                logger.debug("Job '{}' already exists and failed, creating a new one", current.getJob());
+            }
+        }
+    }
+
+    /**
+     * The id of a job that can't be created twice, like the load job of a write channel that is only created once all
+     * the data is uploaded: the first id without a job or with a job that didn't fail, with the numbered suffix of
+     * {@link #create(BigQuery, JobInfo, Logger)}. The caller reattaches to the job if it exists.
+     */
+    public static JobId writerJobId(BigQuery connection, JobId jobId, Logger logger) {
+        if (jobId == null || jobId.getJob() == null) {
+            return jobId;
+        }
+
+        for (int retry = 0; ; retry++) {
+            JobId current = retry == 0 ? jobId : JobId.newBuilder()
+                .setProject(jobId.getProject())
+                .setLocation(jobId.getLocation())
+                .setJob(jobId.getJob() + "_" + retry)
+                .build();
+
+            Job existing = connection.getJob(current);
+            if (existing == null || existing.getStatus().getError() == null) {
+                return current;
+            }
+
+            logger.debug("Job '{}' already exists and failed, creating a new one", current.getJob());
+        }
     }
 
     public static TableId tableId(String table) {
@@ -31,6 +125,81 @@ public class BigQueryService {
         }
     }
 
+    /**
+     * Convert a task property to a query parameter, the type of the parameter is inferred from the java type of the value.
+     */
+    public static QueryParameterValue queryParameter(RunContext runContext, Object value) throws IllegalVariableEvaluationException {
+        if (value == null) {
+            return QueryParameterValue.string(null);
+        } else if (value instanceof QueryParameterValue) {
+            return (QueryParameterValue) value;
+        } else if (value instanceof String) {
+            return QueryParameterValue.string(runContext.render((String) value));
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            return QueryParameterValue.int64(((Number) value).longValue());
+        } else if (value instanceof Float || value instanceof Double) {
+            return QueryParameterValue.float64(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            return QueryParameterValue.numeric((BigDecimal) value);
+        } else if (value instanceof Boolean) {
+            return QueryParameterValue.bool((Boolean) value);
+        } else if (value instanceof Instant) {
+            return QueryParameterValue.timestamp(ChronoUnit.MICROS.between(Instant.EPOCH, (Instant) value));
+        } else if (value instanceof ZonedDateTime) {
+            return queryParameter(runContext, ((ZonedDateTime) value).toInstant());
+        } else if (value instanceof OffsetDateTime) {
+            return queryParameter(runContext, ((OffsetDateTime) value).toInstant());
+        } else if (value instanceof LocalDate) {
+            return QueryParameterValue.date(value.toString());
+        } else if (value instanceof LocalDateTime) {
+            return QueryParameterValue.dateTime(value.toString());
+        } else if (value instanceof LocalTime) {
+            return QueryParameterValue.time(value.toString());
+        } else if (value instanceof Map) {
+            Map<String, QueryParameterValue> struct = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                struct.put(entry.getKey().toString(), queryParameter(runContext, entry.getValue()));
+            }
+
+            return QueryParameterValue.struct(struct);
+        } else if (value instanceof Collection) {
+            // BigQuery arrays have a single element type, can't contain NULL and can't be nested
+            List<QueryParameterValue> values = new ArrayList<>();
+            StandardSQLTypeName type = null;
+            for (Object item : (Collection<?>) value) {
+                if (item == null) {
+                    throw new IllegalArgumentException("Invalid array query parameter, it can't contain null values");
+                }
+
+                QueryParameterValue parameter = queryParameter(runContext, item);
+                if (parameter.getType() == StandardSQLTypeName.ARRAY) {
+                    throw new IllegalArgumentException("Invalid array query parameter, it can't contain arrays");
+                }
+
+                if (type == null) {
+                    type = parameter.getType();
+                } else if (type != parameter.getType()) {
+                    throw new IllegalArgumentException("Invalid array query parameter, all the values must have the same type, " +
+                        "found '" + type + "' and '" + parameter.getType() + "'");
+                }
+
+                values.add(parameter);
+            }
+
+            if (type == null) {
+                type = StandardSQLTypeName.STRING;
+            }
+
+            return QueryParameterValue.newBuilder()
+                .setType(StandardSQLTypeName.ARRAY)
+                .setArrayType(type)
+                .setArrayValues(values)
+                .build();
+        }
+
+        throw new IllegalArgumentException("Unsupported query parameter type '" + value.getClass().getName() + "'");
+    }
+
     public static void handleErrors(Job job, Logger logger) throws BigQueryException {
         if (job == null) {
             throw new IllegalArgumentException("Job no longer exists");
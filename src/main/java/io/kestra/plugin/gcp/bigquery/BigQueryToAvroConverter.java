@@ -0,0 +1,135 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Convert the rows produced by {@link BigQueryRowConverter} to Avro records, with a schema derived from the BigQuery fields.
+ */
+public class BigQueryToAvroConverter {
+    private static final String NAMESPACE = "io.kestra.plugin.gcp.bigquery";
+
+    public static Schema schema(FieldList fields) {
+        return record("root", fields);
+    }
+
+    private static Schema record(String name, FieldList fields) {
+        List<Schema.Field> avroFields = new ArrayList<>(fields.size());
+
+        for (Field field : fields) {
+            Schema schema = type(name + "_" + field.getName(), field);
+
+            if (field.getMode() == Field.Mode.REPEATED) {
+                avroFields.add(new Schema.Field(field.getName(), Schema.createArray(schema), field.getDescription(), (Object) null));
+            } else if (field.getMode() == Field.Mode.REQUIRED) {
+                avroFields.add(new Schema.Field(field.getName(), schema, field.getDescription(), (Object) null));
+            } else {
+                avroFields.add(new Schema.Field(
+                    field.getName(),
+                    Schema.createUnion(Schema.create(Schema.Type.NULL), schema),
+                    field.getDescription(),
+                    Schema.Field.NULL_DEFAULT_VALUE
+                ));
+            }
+        }
+
+        return Schema.createRecord(name, null, NAMESPACE, false, avroFields);
+    }
+
+    private static Schema type(String name, Field field) {
+        switch (field.getType().getStandardType()) {
+            case BOOL:
+                return Schema.create(Schema.Type.BOOLEAN);
+            case INT64:
+                return Schema.create(Schema.Type.LONG);
+            case FLOAT64:
+            case NUMERIC:
+            case BIGNUMERIC:
+                return Schema.create(Schema.Type.DOUBLE);
+            case STRING:
+            case JSON:
+                return Schema.create(Schema.Type.STRING);
+            case BYTES:
+                return Schema.create(Schema.Type.BYTES);
+            case DATE:
+                return LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT));
+            case DATETIME:
+                return LogicalTypes.localTimestampMicros().addToSchema(Schema.create(Schema.Type.LONG));
+            case TIME:
+                return LogicalTypes.timeMicros().addToSchema(Schema.create(Schema.Type.LONG));
+            case TIMESTAMP:
+                return LogicalTypes.timestampMicros().addToSchema(Schema.create(Schema.Type.LONG));
+            case GEOGRAPHY:
+                // points are converted to a [longitude, latitude] list
+                return Schema.createArray(Schema.create(Schema.Type.DOUBLE));
+            case STRUCT:
+                return record(name, field.getSubFields());
+            default:
+                throw new IllegalArgumentException("Invalid type '" + field.getType() + "'");
+        }
+    }
+
+    public static GenericData.Record record(Schema schema, Map<String, Object> row) {
+        GenericData.Record record = new GenericData.Record(schema);
+
+        for (Schema.Field field : schema.getFields()) {
+            record.put(field.pos(), value(field.schema(), row.get(field.name())));
+        }
+
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object value(Schema schema, Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        LogicalType logicalType = schema.getLogicalType();
+
+        switch (schema.getType()) {
+            case UNION:
+                return value(BigQueryRowConverter.nonNull(schema), value);
+            case RECORD:
+                return record(schema, (Map<String, Object>) value);
+            case ARRAY:
+                Collection<?> values = (Collection<?>) value;
+                List<Object> list = new ArrayList<>(values.size());
+                for (Object item : values) {
+                    list.add(value(schema.getElementType(), item));
+                }
+
+                return list;
+            case BYTES:
+                return ByteBuffer.wrap((byte[]) value);
+            case INT:
+                return logicalType instanceof LogicalTypes.Date ? (int) ((LocalDate) value).toEpochDay() : value;
+            case LONG:
+                if (logicalType instanceof LogicalTypes.TimeMicros) {
+                    return ((LocalTime) value).toNanoOfDay() / 1000;
+                } else if (logicalType != null) {
+                    Instant instant = (Instant) value;
+                    return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+                }
+
+                return ((Number) value).longValue();
+            case DOUBLE:
+                return ((Number) value).doubleValue();
+            default:
+                return value;
+        }
+    }
+}
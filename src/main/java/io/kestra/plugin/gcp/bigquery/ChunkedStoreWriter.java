@@ -0,0 +1,71 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import io.kestra.core.utils.Rethrow;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write rows to a sequence of {@link StoreWriter}, rolling over to a new file once the current one reaches
+ * the maximum number of rows or bytes. Without limits, all the rows are written to a single file.
+ */
+public class ChunkedStoreWriter implements Closeable {
+    private final Rethrow.SupplierChecked<StoreWriter, IOException> factory;
+
+    private final Long maxRows;
+
+    private final Long maxBytes;
+
+    /**
+     * The chunks written, in order; they are all closed once this writer is closed.
+     */
+    @Getter
+    private final List<StoreWriter> chunks = new ArrayList<>();
+
+    private StoreWriter current;
+
+    public ChunkedStoreWriter(Rethrow.SupplierChecked<StoreWriter, IOException> factory, Long maxRows, Long maxBytes) {
+        this.factory = factory;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+    }
+
+    public void write(Map<String, Object> row) throws IOException {
+        if (this.current == null) {
+            this.next();
+        } else if ((this.maxRows != null && this.current.getRows() >= this.maxRows) ||
+            (this.maxBytes != null && this.current.getBytes() >= this.maxBytes)) {
+            this.current.close();
+            this.next();
+        }
+
+        this.current.write(row);
+    }
+
+    private void next() throws IOException {
+        this.current = this.factory.get();
+        this.chunks.add(this.current);
+    }
+
+    public long getRows() {
+        return this.chunks.stream().mapToLong(StoreWriter::getRows).sum();
+    }
+
+    public long getBytes() {
+        return this.chunks.stream().mapToLong(StoreWriter::getBytes).sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // an empty result still produces an empty file
+        if (this.current == null) {
+            this.next();
+        }
+
+        this.current.close();
+    }
+}
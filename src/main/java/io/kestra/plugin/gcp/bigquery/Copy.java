@@ -79,15 +79,24 @@ public class Copy extends AbstractJob implements RunnableTask<Copy.Output> {
         logger.debug("Starting copy from {} to {}", jobConfiguration.getSourceTables(), jobConfiguration.getDestinationTable());
 
         Job copyJob = this.waitForJob(
-            logger,
-            () -> connection
-                .create(JobInfo.newBuilder(jobConfiguration)
+            runContext,
+            () -> BigQueryService.create(
+                connection,
+                JobInfo.newBuilder(jobConfiguration)
                     .setJobId(BigQueryService.jobId(runContext, this))
-                    .build()
-                ),
-            this.dryRun
+                    .build(),
+                logger
+            ),
+            this.dryRun,
+            this.wait
         );
 
+        if (!this.wait) {
+            return Output.builder()
+                .jobId(copyJob.getJobId().getJob())
+                .build();
+        }
+
         JobStatistics.CopyStatistics copyJobStatistics = copyJob.getStatistics();
 
         this.metrics(runContext, copyJobStatistics, copyJob);
@@ -0,0 +1,97 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.bigquery.ExternalTableDefinition;
+import com.google.cloud.bigquery.FormatOptions;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.serializers.JacksonMapper;
+import io.kestra.core.utils.IdUtils;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stage kestra internal storage files on GCS as gzipped newline delimited json, and expose them as temporary
+ * external tables of a query, so they can be queried without a load job.
+ */
+class ExternalTableService {
+    private static final ObjectMapper MAPPER = JacksonMapper.ofJson(false);
+
+    /**
+     * Upload each file under a unique path of the prefix.
+     *
+     * @param files the internal storage uri of each file, by table alias
+     * @param staged filled with the uploaded blobs, even on failure, so they can be deleted by the caller
+     * @return the external table definition of each file, by table alias
+     */
+    static Map<String, ExternalTableDefinition> stage(
+        RunContext runContext,
+        Storage storage,
+        Map<String, String> files,
+        String prefix,
+        List<BlobId> staged,
+        Logger logger
+    ) throws IllegalVariableEvaluationException, IOException, URISyntaxException {
+        URI base = URI.create(StringUtils.stripEnd(runContext.render(prefix), "/") + "/" + IdUtils.create() + "/");
+        Map<String, ExternalTableDefinition> definitions = new LinkedHashMap<>();
+
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            URI from = new URI(runContext.render(entry.getValue()));
+            BlobId blobId = BlobId.of(base.getAuthority(), base.getPath().substring(1) + entry.getKey() + ".json.gz");
+
+            logger.debug("Staging '{}' as external table '{}' to 'gs://{}/{}'", from, entry.getKey(), blobId.getBucket(), blobId.getName());
+
+            staged.add(blobId);
+            long rows = upload(runContext, storage, from, blobId);
+
+            runContext.metric(Counter.of("external.rows", rows, "table", entry.getKey()));
+
+            definitions.put(
+                entry.getKey(),
+                ExternalTableDefinition.newBuilder("gs://" + blobId.getBucket() + "/" + blobId.getName(), FormatOptions.json())
+                    .setCompression("GZIP")
+                    .setAutodetect(true)
+                    .build()
+            );
+        }
+
+        return definitions;
+    }
+
+    private static long upload(RunContext runContext, Storage storage, URI from, BlobId blobId) throws IOException {
+        try (
+            BufferedReader reader = new BufferedReader(new InputStreamReader(runContext.uriToInputStream(from)));
+            WriteChannel channel = storage.writer(BlobInfo.newBuilder(blobId).setContentType("application/json").build());
+            Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Channels.newOutputStream(channel)), StandardCharsets.UTF_8))
+        ) {
+            return Flowable
+                .create(FileSerde.reader(reader), BackpressureStrategy.BUFFER)
+                .map(row -> {
+                    writer.write(MAPPER.writeValueAsString(row));
+                    writer.write("\n");
+
+                    return 1L;
+                })
+                .reduce(0L, Long::sum)
+                .blockingGet();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.utils.Rethrow;
+import io.kestra.plugin.gcp.gcs.Download;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read a table exported to GCS as Avro files (with Avro logical types), downloading and decoding the files in parallel.
+ */
+public class ExtractReadService {
+    public static List<BlobId> list(Storage storage, String bucket, String prefix) {
+        return StreamSupport.stream(storage.list(bucket, Storage.BlobListOption.prefix(prefix)).iterateAll().spliterator(), false)
+            .map(Blob::getBlobId)
+            .sorted(Comparator.comparing(BlobId::getName))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Download and convert all the files in parallel, each file to its own writer.
+     * The results are sorted by file index.
+     *
+     * @param writerFactory create a writer for the converter of a file
+     */
+    public static List<StorageReadService.StreamResult> download(
+        RunContext runContext,
+        Storage storage,
+        List<BlobId> blobs,
+        FieldList fields,
+        int parallelism,
+        Rethrow.FunctionChecked<BigQueryRowConverter, ChunkedStoreWriter, IOException> writerFactory
+    ) {
+        if (blobs.isEmpty()) {
+            return List.of();
+        }
+
+        return Flowable.fromIterable(IntStream.range(0, blobs.size()).boxed().collect(Collectors.toList()))
+            .parallel(Math.max(1, Math.min(parallelism, blobs.size())))
+            .runOn(Schedulers.io())
+            .map(index -> {
+                File file = Download.download(runContext, storage, blobs.get(index));
+                ChunkedStoreWriter writer;
+
+                try (DataFileStream<GenericRecord> stream = new DataFileStream<>(new BufferedInputStream(new FileInputStream(file)), new GenericDatumReader<>())) {
+                    BigQueryRowConverter converter = BigQueryRowConverter.of(fields, stream.getSchema());
+                    writer = writerFactory.apply(converter);
+
+                    try (writer) {
+                        GenericRecord record = null;
+                        while (stream.hasNext()) {
+                            record = stream.next(record);
+                            writer.write(converter.convert(record));
+                        }
+                    }
+                } finally {
+                    Files.delete(file.toPath());
+                }
+
+                return StorageReadService.StreamResult.builder()
+                    .index(index)
+                    .chunks(writer.getChunks())
+                    .rows(writer.getRows())
+                    .bytes(writer.getBytes())
+                    .build();
+            })
+            .sequential()
+            .toSortedList(Comparator.comparingInt(StorageReadService.StreamResult::getIndex))
+            .blockingGet();
+    }
+}
@@ -44,7 +44,7 @@ import java.util.Map;
 @Schema(
     title = "Extract data from BigQuery table to GCS (Google Cloud Storage)"
 )
-public class ExtractToGcs extends AbstractBigquery implements RunnableTask<ExtractToGcs.Output>{
+public class ExtractToGcs extends AbstractBigquery implements RunnableTask<ExtractToGcs.Output>, AsyncJobInterface {
 
     @Schema(
         title = "The table to export."
@@ -113,6 +113,12 @@ public class ExtractToGcs extends AbstractBigquery implements RunnableTask<Extra
     @PluginProperty
     private Boolean printHeader;
 
+    @Builder.Default
+    private Boolean deterministicJobId = false;
+
+    @Builder.Default
+    private Boolean wait = true;
+
     @Override
     public ExtractToGcs.Output run(RunContext runContext) throws Exception {
         BigQuery connection = this.connection(runContext);
@@ -120,16 +126,31 @@ public class ExtractToGcs extends AbstractBigquery implements RunnableTask<Extra
 
         ExtractJobConfiguration configuration = this.buildExtractJob(runContext);
 
-        Job extractJob = connection.create(JobInfo.of(configuration));
+        Job extractJob = BigQueryService.create(
+            connection,
+            JobInfo.newBuilder(configuration)
+                .setJobId(BigQueryService.jobId(runContext, this))
+                .build(),
+            logger
+        );
 
         logger.debug("Starting query\n{}", JacksonMapper.log(configuration));
 
+        if (!this.wait) {
+            BigQueryService.handleErrors(extractJob, logger);
+            logger.info("Job '{}' created, not waiting for its completion", extractJob.getJobId().getJob());
+
+            return Output.builder()
+                .jobId(extractJob.getJobId().getJob())
+                .build();
+        }
+
         return this.execute(runContext, logger, configuration, extractJob);
     }
 
     protected ExtractToGcs.Output execute(RunContext runContext, Logger logger, ExtractJobConfiguration configuration, Job job) throws InterruptedException, IllegalVariableEvaluationException, BigQueryException {
         BigQueryService.handleErrors(job, logger);
-        job = job.waitFor();
+        job = waitFor(runContext, job);
         BigQueryService.handleErrors(job, logger);
 
         JobStatistics.ExtractStatistics stats = job.getStatistics();
@@ -0,0 +1,14 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import io.kestra.core.models.annotations.PluginProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public interface JobInterface {
+    @Schema(
+        title = "Whether to use a job id derived from the execution, the task run and the attempt.",
+        description = "If the task is restarted (for example after a worker restart), it reattaches to the job " +
+            "already created instead of running it again. If the existing job failed, a new job is created."
+    )
+    @PluginProperty
+    Boolean getDeterministicJobId();
+}
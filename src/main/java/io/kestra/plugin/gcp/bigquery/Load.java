@@ -2,6 +2,7 @@ package io.kestra.plugin.gcp.bigquery;
 
 import com.google.cloud.bigquery.BigQuery;
 import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobId;
 import com.google.cloud.bigquery.TableDataWriteChannel;
 import com.google.cloud.bigquery.WriteChannelConfiguration;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -70,11 +71,22 @@ public class Load extends AbstractLoad implements RunnableTask<AbstractLoad.Outp
         WriteChannelConfiguration configuration = builder.build();
         logger.debug("Starting load\n{}", JacksonMapper.log(configuration));
 
+        JobId jobId = BigQueryService.writerJobId(connection, BigQueryService.jobId(runContext, this), logger);
+        Job existing = jobId.getJob() != null ? connection.getJob(jobId) : null;
+
+        if (existing != null) {
+            logger.info("Job '{}' already exists, reattaching to it", jobId.getJob());
+
+            Job job = this.waitForJob(runContext, () -> existing, false, this.getWait());
+
+            return this.outputs(runContext, configuration, job);
+        }
+
         URI from = new URI(runContext.render(this.from));
         try (InputStream data = runContext.uriToInputStream(from)) {
             long byteWritten = 0L;
 
-            TableDataWriteChannel writer = connection.writer(configuration);
+            TableDataWriteChannel writer = jobId.getJob() != null ? connection.writer(jobId, configuration) : connection.writer(configuration);
             try (OutputStream stream = Channels.newOutputStream(writer)) {
                 byte[] buffer = new byte[10_240];
 
@@ -95,7 +107,7 @@ public class Load extends AbstractLoad implements RunnableTask<AbstractLoad.Outp
                     .build();
             }
 
-            Job job = this.waitForJob(logger, writer::getJob);
+            Job job = this.waitForJob(runContext, writer::getJob, false, this.getWait());
 
             return this.outputs(runContext, configuration, job);
         }
@@ -93,10 +93,13 @@ public class LoadFromGcs extends AbstractLoad implements RunnableTask<AbstractLo
         LoadJobConfiguration configuration = builder.build();
         logger.debug("Starting query\n{}", JacksonMapper.log(configuration));
 
-        Job loadJob = this.waitForJob(logger, () -> connection.create(JobInfo.newBuilder(configuration)
-            .setJobId(BigQueryService.jobId(runContext, this))
-            .build()
-        ));
+        Job loadJob = this.waitForJob(runContext, () -> BigQueryService.create(
+            connection,
+            JobInfo.newBuilder(configuration)
+                .setJobId(BigQueryService.jobId(runContext, this))
+                .build(),
+            logger
+        ), false, this.getWait());
 
         return this.outputs(runContext, configuration, loadJob);
     }
@@ -0,0 +1,339 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.*;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.utils.IdUtils;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Upsert a file in a table on the `id` column",
+            code = {
+                "from: \"{{ outputs.extract.uri }}\"",
+                "destinationTable: \"my_project.my_dataset.my_table\"",
+                "keys:",
+                "  - id"
+            }
+        ),
+        @Example(
+            title = "Make the table a copy of the file, deleting the rows missing from it",
+            code = {
+                "from: \"{{ outputs.extract.uri }}\"",
+                "destinationTable: \"my_project.my_dataset.my_table\"",
+                "keys:",
+                "  - id",
+                "whenNotMatchedBySource: DELETE"
+            }
+        )
+    }
+)
+@Schema(
+    title = "Merge a Kestra internal storage file into a BigQuery table on key columns.",
+    description = "The file is written with the BigQuery Storage Write API into a staging table with the schema of the " +
+        "destination table, then a `MERGE` statement generated from the `keys` and the policies is run, and the staging " +
+        "table is deleted. The staging table also expires automatically in case the task is killed.\n" +
+        "The file must contain at most one row per key, and only columns of the destination table."
+)
+public class Merge extends AbstractBigquery implements RunnableTask<Merge.Output>, JobInterface {
+    @Schema(
+        title = "The internal storage uri of the file to merge"
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    private String from;
+
+    @Schema(
+        title = "The table to merge into, as `project.dataset.table` or `dataset.table`.",
+        description = "The staging table is created in the same dataset."
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    private String destinationTable;
+
+    @Schema(
+        title = "The columns identifying a row, used to match the rows of the file with the rows of the table."
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    @NotEmpty
+    private List<String> keys;
+
+    @Schema(
+        title = "The action on the table rows matching a row of the file.",
+        description = "`UPDATE` sets all the columns that are not keys from the file."
+    )
+    @PluginProperty
+    @NotNull
+    @Builder.Default
+    private WhenMatched whenMatched = WhenMatched.UPDATE;
+
+    @Schema(
+        title = "The action on the rows of the file missing from the table."
+    )
+    @PluginProperty
+    @NotNull
+    @Builder.Default
+    private WhenNotMatched whenNotMatched = WhenNotMatched.INSERT;
+
+    @Schema(
+        title = "The action on the table rows missing from the file."
+    )
+    @PluginProperty
+    @NotNull
+    @Builder.Default
+    private WhenNotMatchedBySource whenNotMatchedBySource = WhenNotMatchedBySource.SKIP;
+
+    @Schema(
+        title = "The expiration of the staging table.",
+        description = "The staging table is deleted at the end of the task, the expiration only cleans it if the task is killed."
+    )
+    @PluginProperty
+    @NotNull
+    @Builder.Default
+    private Duration stagingExpiration = Duration.ofHours(6);
+
+    @Schema(
+        title = "The number of records sent on each append to the staging table"
+    )
+    @PluginProperty
+    @NotNull
+    @Builder.Default
+    private Integer bufferSize = 1000;
+
+    @Builder.Default
+    private Boolean deterministicJobId = false;
+
+    @Override
+    public Merge.Output run(RunContext runContext) throws Exception {
+        BigQuery connection = this.connection(runContext);
+        Logger logger = runContext.logger();
+
+        Table destination = connection.getTable(BigQueryService.tableId(runContext.render(this.destinationTable)));
+        if (destination == null) {
+            throw new IllegalArgumentException("Unable to find table '" + runContext.render(this.destinationTable) + "'");
+        }
+
+        TableId destinationId = destination.getTableId();
+        FieldList fields = destination.getDefinition().getSchema().getFields();
+        List<String> keys = runContext.render(this.keys);
+
+        // validated before staging the file, to fail without any write
+        // a partition decorator (`table$20240101`) is not part of a valid table name
+        String staging = StringUtils.substringBefore(destinationId.getTable(), "$") + "_kestra_merge_" + IdUtils.create();
+        TableId stagingId = TableId.of(destinationId.getProject(), destinationId.getDataset(), staging);
+        String sql = this.sql(destinationId, stagingId, fields, keys);
+
+        String[] tags = {
+            "project_id", destinationId.getProject(),
+            "dataset", destinationId.getDataset(),
+            "table", destinationId.getTable(),
+        };
+
+        logger.debug("Creating staging table '{}'", stagingId);
+
+        connection.create(TableInfo.newBuilder(stagingId, StandardTableDefinition.of(com.google.cloud.bigquery.Schema.of(fields)))
+            .setExpirationTime(Instant.now().plus(this.stagingExpiration).toEpochMilli())
+            .setLabels(BigQueryService.labels(runContext))
+            .build()
+        );
+
+        try {
+            StorageWrite write = StorageWrite.builder()
+                .id(this.id)
+                .type(StorageWrite.class.getName())
+                .projectId(this.projectId)
+                .serviceAccount(this.serviceAccount)
+                .scopes(this.scopes)
+                .location(this.location)
+                .from(this.from)
+                .destinationTable(destinationId.getProject() + "." + destinationId.getDataset() + "." + staging)
+                .writeStreamType(StorageWrite.WriteStreamType.PENDING)
+                .bufferSize(this.bufferSize)
+                .build();
+
+            StorageWrite.Output written = write.run(runContext);
+
+            logger.debug("Staged {} rows, merging them with: {}", written.getRows(), sql);
+
+            Job job = this.waitForJob(
+                runContext,
+                () -> BigQueryService.create(
+                    connection,
+                    JobInfo.newBuilder(QueryJobConfiguration.newBuilder(sql)
+                            .setUseLegacySql(false)
+                            .setLabels(BigQueryService.labels(runContext))
+                            .build()
+                        )
+                        .setJobId(BigQueryService.jobId(runContext, this))
+                        .build(),
+                    logger
+                )
+            );
+
+            JobStatistics.QueryStatistics statistics = job.getStatistics();
+            DmlStats dmlStats = statistics.getDmlStats();
+
+            Output output = Output.builder()
+                .jobId(job.getJobId().getJob())
+                .stagedRows(written.getRows() != null ? written.getRows().longValue() : null)
+                .insertedRows(dmlStats != null ? dmlStats.getInsertedRowCount() : null)
+                .updatedRows(dmlStats != null ? dmlStats.getUpdatedRowCount() : null)
+                .deletedRows(dmlStats != null ? dmlStats.getDeletedRowCount() : null)
+                .build();
+
+            if (output.getStagedRows() != null) {
+                runContext.metric(Counter.of("staged.rows", output.getStagedRows(), tags));
+            }
+            if (output.getInsertedRows() != null) {
+                runContext.metric(Counter.of("inserted.rows", output.getInsertedRows(), tags));
+            }
+            if (output.getUpdatedRows() != null) {
+                runContext.metric(Counter.of("updated.rows", output.getUpdatedRows(), tags));
+            }
+            if (output.getDeletedRows() != null) {
+                runContext.metric(Counter.of("deleted.rows", output.getDeletedRows(), tags));
+            }
+            if (statistics.getTotalBytesProcessed() != null) {
+                runContext.metric(Counter.of("total.bytes.processed", statistics.getTotalBytesProcessed(), tags));
+            }
+
+            return output;
+        } finally {
+            logger.debug("Deleting staging table '{}'", stagingId);
+
+            // a failed cleanup must not hide the failure of the merge, the table expires anyway
+            try {
+                connection.delete(stagingId);
+            } catch (Exception e) {
+                logger.warn("Unable to delete staging table '{}', it will expire after {}", stagingId, this.stagingExpiration, e);
+            }
+        }
+    }
+
+    String sql(TableId destination, TableId staging, FieldList fields, List<String> keys) {
+        List<String> columns = fields.stream().map(Field::getName).collect(Collectors.toList());
+
+        // BigQuery column names are case-insensitive, the keys are replaced by the names of the table columns
+        List<String> keyColumns = new ArrayList<>();
+        for (String key : keys) {
+            keyColumns.add(columns.stream()
+                .filter(column -> column.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid key '" + key + "', the table has no such column"))
+            );
+        }
+
+        List<String> values = columns.stream()
+            .filter(column -> !keyColumns.contains(column))
+            .collect(Collectors.toList());
+
+        List<String> clauses = new ArrayList<>();
+
+        if (this.whenMatched == WhenMatched.UPDATE && !values.isEmpty()) {
+            clauses.add("WHEN MATCHED THEN UPDATE SET " + values.stream()
+                .map(column -> quote(column) + " = S." + quote(column))
+                .collect(Collectors.joining(", "))
+            );
+        } else if (this.whenMatched == WhenMatched.DELETE) {
+            clauses.add("WHEN MATCHED THEN DELETE");
+        }
+
+        if (this.whenNotMatched == WhenNotMatched.INSERT) {
+            clauses.add("WHEN NOT MATCHED THEN INSERT (" +
+                columns.stream().map(Merge::quote).collect(Collectors.joining(", ")) +
+                ") VALUES (" +
+                columns.stream().map(column -> "S." + quote(column)).collect(Collectors.joining(", ")) +
+                ")"
+            );
+        }
+
+        if (this.whenNotMatchedBySource == WhenNotMatchedBySource.DELETE) {
+            clauses.add("WHEN NOT MATCHED BY SOURCE THEN DELETE");
+        }
+
+        if (clauses.isEmpty()) {
+            throw new IllegalArgumentException("Invalid merge policies, at least one of them must change the table");
+        }
+
+        return "MERGE " + quote(destination) + " T\n" +
+            "USING " + quote(staging) + " S\n" +
+            "ON " + keyColumns.stream().map(key -> "T." + quote(key) + " = S." + quote(key)).collect(Collectors.joining(" AND ")) + "\n" +
+            String.join("\n", clauses);
+    }
+
+    private static String quote(String column) {
+        return "`" + column + "`";
+    }
+
+    private static String quote(TableId tableId) {
+        return "`" + tableId.getProject() + "." + tableId.getDataset() + "." + tableId.getTable() + "`";
+    }
+
+    public enum WhenMatched {
+        UPDATE,
+        DELETE,
+        SKIP
+    }
+
+    public enum WhenNotMatched {
+        INSERT,
+        SKIP
+    }
+
+    public enum WhenNotMatchedBySource {
+        DELETE,
+        SKIP
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The job id of the merge"
+        )
+        private String jobId;
+
+        @Schema(
+            title = "The number of rows of the file staged"
+        )
+        private Long stagedRows;
+
+        @Schema(
+            title = "The number of rows inserted in the table"
+        )
+        private Long insertedRows;
+
+        @Schema(
+            title = "The number of rows of the table updated"
+        )
+        private Long updatedRows;
+
+        @Schema(
+            title = "The number of rows of the table deleted"
+        )
+        private Long deletedRows;
+    }
+}
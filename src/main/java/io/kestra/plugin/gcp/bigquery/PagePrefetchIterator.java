@@ -0,0 +1,156 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.api.gax.paging.Page;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Iterate over all the values of a paginated result, requesting the next pages in a background thread
+ * while the current one is consumed.
+ * At most {@code depth} pages are fetched ahead, a depth of 0 fetches the pages on demand in the calling thread.
+ */
+public class PagePrefetchIterator<T> implements Iterator<T>, Closeable {
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private final Thread thread;
+
+    private Page<T> page;
+    private Iterator<T> current;
+    private boolean ended = false;
+
+    private PagePrefetchIterator(Page<T> first, int depth) {
+        this.page = first;
+        this.current = first.getValues().iterator();
+
+        // a single page result has nothing to prefetch
+        if (depth <= 0 || !first.hasNextPage()) {
+            this.queue = null;
+            this.thread = null;
+            return;
+        }
+
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.thread = new Thread(() -> this.prefetch(first), "bigquery-page-prefetch");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public static <T> PagePrefetchIterator<T> of(Page<T> first, int depth) {
+        return new PagePrefetchIterator<>(first, depth);
+    }
+
+    private void prefetch(Page<T> first) {
+        Object last = END;
+
+        try {
+            Page<T> next = first;
+            while (next.hasNextPage()) {
+                next = next.getNextPage();
+                this.queue.put(next.getValues());
+            }
+        } catch (InterruptedException e) {
+            // closed by the consumer
+            return;
+        } catch (Throwable e) {
+            // any failure, errors included, must reach the consumer or it would wait forever
+            last = new Failure(e);
+        }
+
+        try {
+            this.queue.put(last);
+        } catch (InterruptedException ignored) {
+            // closed by the consumer
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!this.current.hasNext()) {
+            if (this.ended) {
+                return false;
+            }
+
+            Iterable<T> values = this.nextValues();
+            if (values == null) {
+                this.ended = true;
+                this.current = Collections.emptyIterator();
+
+                return false;
+            }
+
+            this.current = values.iterator();
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterable<T> nextValues() {
+        if (this.thread == null) {
+            if (!this.page.hasNextPage()) {
+                return null;
+            }
+
+            this.page = this.page.getNextPage();
+
+            return this.page.getValues();
+        }
+
+        Object next;
+        try {
+            next = this.queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        }
+
+        if (next == END) {
+            return null;
+        }
+
+        if (next instanceof Failure) {
+            this.ended = true;
+            Throwable cause = ((Failure) next).cause;
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IllegalStateException("Unable to fetch the next page", cause);
+        }
+
+        return (Iterable<T>) next;
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return this.current.next();
+    }
+
+    @Override
+    public void close() {
+        if (this.thread != null) {
+            this.thread.interrupt();
+        }
+    }
+
+    private static class Failure {
+        private final Throwable cause;
+
+        private Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.*;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.slf4j.Logger;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Run several queries at once and fetch their results",
+            code = {
+                "concurrency: 20",
+                "fetch: true",
+                "queries:",
+                "  - SELECT COUNT(*) AS count FROM `my_project.my_dataset.table_a`",
+                "  - SELECT COUNT(*) AS count FROM `my_project.my_dataset.table_b`",
+            }
+        )
+    }
+)
+@Schema(
+    title = "Execute a list of independent BigQuery SQL queries in a single task.",
+    description = "All the queries are submitted as jobs, with at most `concurrency` jobs running at the same time, " +
+        "and are polled together by a single thread. The outputs are returned in the order of the queries."
+)
+public class Queries extends AbstractBigquery implements RunnableTask<Queries.Output>, JobInterface {
+    @Schema(
+        title = "The sql queries to run"
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    @NotEmpty
+    private List<String> queries;
+
+    @Schema(
+        title = "Whether to use BigQuery's legacy SQL dialect for the queries"
+    )
+    @PluginProperty
+    @Builder.Default
+    private boolean legacySql = false;
+
+    @Schema(
+        title = "Whether to Fetch the data from the query results to the task output"
+    )
+    @PluginProperty
+    @Builder.Default
+    private boolean fetch = false;
+
+    @Schema(
+        title = "Whether to Fetch only one data row from the query results to the task output"
+    )
+    @PluginProperty
+    @Builder.Default
+    private boolean fetchOne = false;
+
+    @Schema(
+        title = "Whether to store the data from each query result into an ion serialized data file"
+    )
+    @PluginProperty
+    @Builder.Default
+    private boolean store = false;
+
+    @Schema(
+        title = "Sets a priority for the queries."
+    )
+    @PluginProperty
+    @Builder.Default
+    private QueryJobConfiguration.Priority priority = QueryJobConfiguration.Priority.INTERACTIVE;
+
+    @Schema(
+        title = "The maximum number of jobs running at the same time."
+    )
+    @PluginProperty
+    @Min(1)
+    @Builder.Default
+    private Integer concurrency = 10;
+
+    @Schema(
+        title = "The interval between two polls of the running jobs."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    @Schema(
+        title = "The size in bytes of the write buffer used to store the results.",
+        description = "Only used when `store` is `true`, see `Query.storeBufferSize`."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Integer storeBufferSize = 1024 * 1024;
+
+    @Schema(
+        title = "The number of result pages requested ahead while the current one is converted.",
+        description = "Only used when `fetch`, `fetchOne` or `store` is `true`, see `Query.prefetchPages`."
+    )
+    @PluginProperty
+    @Min(0)
+    @Builder.Default
+    private Integer prefetchPages = 0;
+
+    @Builder.Default
+    private Boolean deterministicJobId = false;
+
+    @Override
+    public Queries.Output run(RunContext runContext) throws Exception {
+        BigQuery connection = this.connection(runContext);
+        Logger logger = runContext.logger();
+
+        if ((this.fetch || this.fetchOne) && this.store) {
+            throw new IllegalArgumentException("Invalid store with fetch or fetchOne properties, you can't have both defined.");
+        }
+
+        List<String> sqls = runContext.render(this.queries);
+        Deque<Integer> pending = new ArrayDeque<>();
+        for (int i = 0; i < sqls.size(); i++) {
+            pending.add(i);
+        }
+
+        Map<Integer, Job> running = new LinkedHashMap<>();
+        Job[] done = new Job[sqls.size()];
+        long start = System.nanoTime();
+
+        try {
+            while (!pending.isEmpty() || !running.isEmpty()) {
+                while (running.size() < this.concurrency && !pending.isEmpty()) {
+                    int index = pending.poll();
+                    QueryJobConfiguration jobConfiguration = this.jobConfiguration(runContext, sqls.get(index));
+
+                    // created with the automatic retry, but awaited by the polling below
+                    Job job = this.waitForJob(
+                        runContext,
+                        () -> BigQueryService.create(
+                            connection,
+                            JobInfo.newBuilder(jobConfiguration)
+                                .setJobId(BigQueryService.jobId(runContext, this, String.valueOf(index)))
+                                .build(),
+                            logger
+                        ),
+                        false,
+                        false
+                    );
+
+                    logger.debug("Starting job '{}' for query {}", job.getJobId().getJob(), index);
+                    running.put(index, job);
+                }
+
+                Iterator<Map.Entry<Integer, Job>> iterator = running.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Integer, Job> entry = iterator.next();
+                    Job job = connection.getJob(entry.getValue().getJobId());
+
+                    if (job == null || job.getStatus().getState() == JobStatus.State.DONE) {
+                        iterator.remove();
+                        BigQueryService.handleErrors(job, logger);
+
+                        done[entry.getKey()] = job;
+                    }
+                }
+
+                if (!running.isEmpty()) {
+                    Thread.sleep(this.pollInterval.toMillis());
+                }
+            }
+        } catch (Exception e) {
+            for (Job job : running.values()) {
+                logger.warn("Cancelling job '{}'", job.getJobId().getJob());
+                connection.cancel(job.getJobId());
+            }
+
+            if (!running.isEmpty()) {
+                runContext.metric(Counter.of("job.cancelled", running.size(), "type", "QUERY"));
+            }
+
+            throw e;
+        }
+
+        // results are read once all the jobs are done, so a large download doesn't delay the other jobs
+        List<QueryResult> outputs = new ArrayList<>();
+        for (Job job : done) {
+            outputs.add(this.result(runContext, job));
+        }
+
+        this.metrics(runContext, outputs, Duration.ofNanos(System.nanoTime() - start));
+
+        return Output.builder()
+            .results(outputs)
+            .build();
+    }
+
+    private QueryJobConfiguration jobConfiguration(RunContext runContext, String sql) {
+        return QueryJobConfiguration.newBuilder(sql)
+            .setUseLegacySql(this.legacySql)
+            .setPriority(this.priority)
+            .setLabels(BigQueryService.labels(runContext))
+            .build();
+    }
+
+    private QueryResult result(RunContext runContext, Job job) throws Exception {
+        JobStatistics.QueryStatistics statistics = job.getStatistics();
+
+        QueryResult.QueryResultBuilder builder = QueryResult.builder()
+            .jobId(job.getJobId().getJob())
+            .totalBytesProcessed(statistics.getTotalBytesProcessed())
+            .totalBytesBilled(statistics.getTotalBytesBilled())
+            .totalSlotMs(statistics.getTotalSlotMs())
+            .cacheHit(statistics.getCacheHit());
+
+        if (statistics.getEndTime() != null && statistics.getStartTime() != null) {
+            builder.duration(Duration.ofMillis(statistics.getEndTime() - statistics.getStartTime()));
+        }
+
+        if (!this.fetch && !this.fetchOne && !this.store) {
+            return builder.build();
+        }
+
+        TableResult result = job.getQueryResults();
+        BigQueryRowConverter converter = BigQueryRowConverter.of(result.getSchema().getFields());
+
+        if (this.store) {
+            StoreWriter writer = StoreWriter.of(runContext, this.storeBufferSize);
+
+            try (writer; PagePrefetchIterator<FieldValueList> iterator = PagePrefetchIterator.of(result, this.prefetchPages)) {
+                while (iterator.hasNext()) {
+                    writer.write(converter.convert(iterator.next()));
+                }
+            }
+
+            return builder
+                .uri(runContext.putTempFile(writer.getFile()))
+                .size(writer.getRows())
+                .build();
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (PagePrefetchIterator<FieldValueList> iterator = PagePrefetchIterator.of(result, this.fetchOne ? 0 : this.prefetchPages)) {
+            while (iterator.hasNext()) {
+                rows.add(converter.convert(iterator.next()));
+
+                if (this.fetchOne) {
+                    break;
+                }
+            }
+        }
+
+        if (this.fetchOne) {
+            builder.row(rows.isEmpty() ? Map.of() : rows.get(0));
+        } else {
+            builder.rows(rows);
+        }
+
+        return builder
+            .size((long) rows.size())
+            .build();
+    }
+
+    private void metrics(RunContext runContext, List<QueryResult> results, Duration duration) {
+        String[] tags = {
+            "fetch", this.fetch || this.fetchOne ? "true" : "false",
+            "store", this.store ? "true" : "false",
+        };
+
+        runContext.metric(Counter.of("queries", results.size(), tags));
+        runContext.metric(Counter.of("total.bytes.processed", results.stream().map(QueryResult::getTotalBytesProcessed).filter(Objects::nonNull).mapToLong(Long::longValue).sum(), tags));
+        runContext.metric(Counter.of("total.slot.ms", results.stream().map(QueryResult::getTotalSlotMs).filter(Objects::nonNull).mapToLong(Long::longValue).sum(), tags));
+        runContext.metric(Counter.of("fetch.rows", results.stream().map(QueryResult::getSize).filter(Objects::nonNull).mapToLong(Long::longValue).sum(), tags));
+        runContext.metric(Timer.of("duration", duration, tags));
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The results of the queries, in the order of the queries"
+        )
+        private List<QueryResult> results;
+    }
+
+    @Builder
+    @Getter
+    public static class QueryResult {
+        @Schema(
+            title = "The job id"
+        )
+        private String jobId;
+
+        @Schema(
+            title = "List containing the fetched data",
+            description = "Only populated if 'fetch' parameter is set to true."
+        )
+        private List<Map<String, Object>> rows;
+
+        @Schema(
+            title = "Map containing the first row of fetched data",
+            description = "Only populated if 'fetchOne' parameter is set to true."
+        )
+        private Map<String, Object> row;
+
+        @Schema(
+            title = "The size of the rows fetch"
+        )
+        private Long size;
+
+        @Schema(
+            title = "The uri of store result",
+            description = "Only populated if 'store' is set to true."
+        )
+        private URI uri;
+
+        @Schema(
+            title = "The total bytes processed by the query"
+        )
+        private Long totalBytesProcessed;
+
+        @Schema(
+            title = "The total bytes billed for the query"
+        )
+        private Long totalBytesBilled;
+
+        @Schema(
+            title = "The slot milliseconds consumed by the query"
+        )
+        private Long totalSlotMs;
+
+        @Schema(
+            title = "Whether the result was served from the BigQuery query cache"
+        )
+        private Boolean cacheHit;
+
+        @Schema(
+            title = "The duration of the job"
+        )
+        private Duration duration;
+    }
+}
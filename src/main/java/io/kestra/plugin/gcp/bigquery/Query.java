@@ -1,14 +1,19 @@
 package io.kestra.plugin.gcp.bigquery;
 
 import com.google.cloud.bigquery.*;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
 import com.google.common.collect.ImmutableMap;
-import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
-import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
 import io.kestra.core.models.annotations.Example;
 import io.kestra.core.models.annotations.Plugin;
@@ -17,24 +22,20 @@ import io.kestra.core.models.executions.metrics.Counter;
 import io.kestra.core.models.executions.metrics.Timer;
 import io.kestra.core.models.tasks.RunnableTask;
 import io.kestra.core.runners.RunContext;
-import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.plugin.gcp.gcs.AbstractGcs;
 import org.slf4j.Logger;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.URI;
 import java.time.Duration;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.IntStream;
+import javax.validation.constraints.Min;
 
 @SuperBuilder
 @ToString
@@ -82,6 +83,20 @@ import java.util.stream.StreamSupport;
                 "    id : {{ this.id }}, name: {{ this.name }}",
                 "    {{/each}}"
             }
+        ),
+        @Example(
+            title = "Join a file of a previous task with a table, without loading it",
+            code = {
+                "fetch: true",
+                "externalTablesPrefix: gs://my_bucket/kestra/external",
+                "externalTables:",
+                "  customers: \"{{ outputs.extract.uri }}\"",
+                "sql: |",
+                "  SELECT c.name, SUM(o.amount) AS amount",
+                "  FROM customers c",
+                "  JOIN `my_project.my_dataset.orders` o ON o.customer_id = c.id",
+                "  GROUP BY c.name"
+            }
         )
     }
 )
@@ -105,9 +120,37 @@ public class Query extends AbstractJob implements RunnableTask<Query.Output>, Qu
     @Builder.Default
     private boolean fetchOne = false;
 
-    // private List<String> positionalParameters;
+    @Schema(
+        title = "The positional parameters of the query, bound to the `?` placeholders.",
+        description = "The type of each parameter is inferred from its value: string, integer, float, boolean, list or map " +
+            "(bound as a `STRUCT`). Use a `CAST` in the query for other types like `DATE` or `TIMESTAMP`.\n" +
+            "Binding the parameters instead of rendering them in the query keeps the same SQL text across executions, " +
+            "which allows BigQuery to use its query cache."
+    )
+    @PluginProperty(dynamic = true)
+    private List<Object> positionalParameters;
+
+    @Schema(
+        title = "The named parameters of the query, bound to the `@name` placeholders.",
+        description = "The type of each parameter is inferred from its value, see `positionalParameters`."
+    )
+    @PluginProperty(dynamic = true)
+    private Map<String, Object> namedParameters;
+
+    @Schema(
+        title = "A list of named parameter sets, the query is run once for each set.",
+        description = "Each set is merged over `namedParameters`. The queries are run concurrently (see `batchConcurrency`) " +
+            "and all the rows are stored in a single file, in the order of the sets. Requires `store: true`."
+    )
+    @PluginProperty(dynamic = true)
+    private List<Map<String, Object>> batchParameters;
 
-    // private Map<String, String> namedParameters;
+    @Schema(
+        title = "The maximum number of queries run at the same time with `batchParameters`."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Integer batchConcurrency = 4;
 
     @Schema(
         title = "The clustering specification for the destination table"
@@ -227,6 +270,22 @@ public class Query extends AbstractJob implements RunnableTask<Query.Output>, Qu
     @PluginProperty
     private Long maximumBytesBilled;
 
+    @Schema(
+        title = "Fail the task before running the query if it would process more bytes than this limit.",
+        description = "A dry run is done first to estimate the bytes processed, and the task fails without running the query " +
+            "if the estimate exceeds the limit. Unlike `maximumBytesBilled`, no job is started."
+    )
+    @PluginProperty
+    private Long maxBytesProcessed;
+
+    @Schema(
+        title = "Run the query with `BATCH` priority if it would process more bytes than this threshold.",
+        description = "A dry run is done first to estimate the bytes processed. Queries under the threshold use the " +
+            "configured `priority`, larger ones are queued with `BATCH` priority to keep interactive slots for small queries."
+    )
+    @PluginProperty
+    private Long batchPriorityBytes;
+
     @Schema(
         title = "This is only supported in the fast query path.",
         description = "The maximum number of rows of data " +
@@ -238,24 +297,392 @@ public class Query extends AbstractJob implements RunnableTask<Query.Output>, Qu
     @PluginProperty
     private Long maxResults;
 
+    @Schema(
+        title = "Whether to download the stored results with the BigQuery Storage Read API.",
+        description = "Only used when `store` is `true`. The rows are streamed from the destination table (or the temporary " +
+            "table created automatically) instead of being paged through the REST API, which is much faster for large results.\n" +
+            "Queries that don't produce a destination table (like scripts) fall back to the REST API."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Boolean storageRead = false;
+
+    @Schema(
+        title = "The maximum number of parallel read streams requested to the BigQuery Storage Read API.",
+        description = "Only used when `storageRead` is `true`. BigQuery may return fewer streams than requested.\n" +
+            "The ordering of the query result (`ORDER BY`) is only kept with a single stream."
+    )
+    @PluginProperty
+    @Min(1)
+    @Builder.Default
+    private Integer maxStreams = 1;
+
+    @Schema(
+        title = "The number of threads used to download the read streams or the extracted files.",
+        description = "Only used when `storageRead` is `true` or when the results are extracted to GCS. " +
+            "Default to the number of streams returned by BigQuery, or the number of processors for extracted files."
+    )
+    @PluginProperty
+    private Integer parallelism;
+
+    @Schema(
+        title = "Whether to merge the read streams into a single file.",
+        description = "Only used when `storageRead` is `true`. The streams are merged in the order of the streams. " +
+            "If `false`, one file is stored per stream and the output `uris` is populated instead of `uri`."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Boolean mergeStreams = true;
+
+    @Schema(
+        title = "The size in bytes of the write buffer used to store the results.",
+        description = "Only used when `store` is `true`. Rows are pulled one page at a time and written through this buffer, " +
+            "so the memory used doesn't depend on the size of the result."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Integer storeBufferSize = 1024 * 1024;
+
+    @Schema(
+        title = "The format of the stored results.",
+        description = "Only used when `store` is `true`.\n" +
+            "* `ION`: kestra's internal format, readable by all the other tasks.\n" +
+            "* `AVRO`: Avro records with a schema derived from the BigQuery schema, dates and times use Avro logical types."
+    )
+    @PluginProperty
+    @Builder.Default
+    private StoreWriter.Format storeFormat = StoreWriter.Format.ION;
+
+    @Schema(
+        title = "The compression of the stored results.",
+        description = "Only used when `store` is `true`. Ion files are gzipped (`.ion.gz`), " +
+            "Avro files use the deflate codec of the Avro container."
+    )
+    @PluginProperty
+    @Builder.Default
+    private StoreWriter.Compression compression = StoreWriter.Compression.NONE;
+
+    @Schema(
+        title = "Roll over to a new file every `chunkRows` rows.",
+        description = "Only used when `store` is `true`. The results are stored in many files, listed in the `uris` and " +
+            "`chunks` outputs, so that downstream tasks can process them in parallel without splitting them again."
+    )
+    @PluginProperty
+    @Min(1)
+    private Long chunkRows;
+
+    @Schema(
+        title = "Roll over to a new file once the current one reaches `chunkBytes` bytes.",
+        description = "Only used when `store` is `true`. The size is checked as the write buffer is flushed, " +
+            "so files can be larger by up to `storeBufferSize` bytes."
+    )
+    @PluginProperty
+    @Min(1)
+    private Long chunkBytes;
+
+    @Schema(
+        title = "The GCS prefix used to extract large results, as `gs://bucket/path`.",
+        description = "Only used when `store` is `true`. If the result table is larger than `extractThresholdBytes`, " +
+            "it's exported as Avro files under a unique path of this prefix, the files are downloaded and converted in parallel, " +
+            "then deleted. This is faster than reading large results page by page."
+    )
+    @PluginProperty(dynamic = true)
+    private String extractPrefix;
+
+    @Schema(
+        title = "The result size in bytes from which the results are extracted to `extractPrefix`."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Long extractThresholdBytes = 1024L * 1024 * 1024;
+
+    @Schema(
+        title = "Kestra internal storage files to query as temporary external tables, by table name.",
+        description = "Each file is staged under `externalTablesPrefix` as gzipped newline delimited json, with a schema " +
+            "detected by BigQuery, and can be referenced by its name in the sql like any table. " +
+            "No load job is run, and the staged files are deleted at the end of the task."
+    )
+    @PluginProperty(dynamic = true, additionalProperties = String.class)
+    private Map<String, String> externalTables;
+
+    @Schema(
+        title = "The GCS prefix used to stage the `externalTables` files, as `gs://bucket/path`."
+    )
+    @PluginProperty(dynamic = true)
+    private String externalTablesPrefix;
+
+    @Schema(
+        title = "The maximum number of rows to fetch in the task output.",
+        description = "Only used when `fetch` or `fetchOne` is `true`, see `fetchLimitBehavior` for what happens when the limit is reached."
+    )
+    @PluginProperty
+    private Long maxFetchRows;
+
+    @Schema(
+        title = "The maximum estimated size in bytes of the rows to fetch in the task output.",
+        description = "Only used when `fetch` or `fetchOne` is `true`, see `fetchLimitBehavior` for what happens when the limit is reached."
+    )
+    @PluginProperty
+    private Long maxFetchBytes;
+
+    @Schema(
+        title = "What to do when `maxFetchRows` or `maxFetchBytes` is reached.",
+        description = "* `ERROR`: the task fails without iterating the rest of the results.\n" +
+            "* `STORE`: the results are stored in an ion file like with `store: true`, and the output `fetchLimitReached` is `true`."
+    )
+    @PluginProperty
+    @Builder.Default
+    private FetchLimitBehavior fetchLimitBehavior = FetchLimitBehavior.ERROR;
+
+    @Schema(
+        title = "Whether to reuse the output of a previous execution of the same query.",
+        description = "Only used when `fetch`, `fetchOne` or `store` is `true`. The cache key is built from the rendered query, " +
+            "its parameters and the last modification time of every table referenced by the query (found with a dry run), " +
+            "so the cache is invalidated as soon as a table changes.\n" +
+            "Queries using non-deterministic functions (like `CURRENT_TIMESTAMP()`) should not use the cache. " +
+            "Queries with a `destinationTable` or a `writeDisposition`, and statements other than `SELECT` (scripts, DML, DDL) " +
+            "are always run. When `store` is `true`, the files stored by the previous execution are copied in the current one."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Boolean resultCache = false;
+
+    @Schema(
+        title = "How long a cached output can be reused.",
+        description = "Only used when `resultCache` is `true`."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Duration resultCacheTtl = Duration.ofDays(1);
+
+    @Schema(
+        title = "Whether to run small interactive queries through the short query API.",
+        description = "Only used with `fetch` or `fetchOne`. The query is sent with the `jobs.query` API that returns the " +
+            "first page of results in the response, saving the job creation, polling and result calls. " +
+            "The client falls back to the job API when the query doesn't complete in time, has more pages, " +
+            "or uses options not supported by the short query API (destination table, partitioning, clustering, job timeout, ...).\n" +
+            "Job statistics are not available with this API, the `jobId` output and the job metrics are not populated."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Boolean fastQuery = false;
+
+    @Schema(
+        title = "The number of result pages requested ahead while the current one is converted.",
+        description = "Only used when the results are read with the REST API (`fetch`, or `store` without `storageRead`). " +
+            "The next pages are requested by a background thread, so network and conversion time overlap. " +
+            "Each prefetched page is kept in memory. Default to 0, the pages are requested one by one."
+    )
+    @PluginProperty
+    @Min(0)
+    @Builder.Default
+    private Integer prefetchPages = 0;
+
+    @Schema(
+        title = "Whether to share the job of identical queries running at the same time on the same worker.",
+        description = "Queries with the same credentials, sql, project, location and parameters started while an identical query is " +
+            "running wait for its job and read its results instead of starting their own job. " +
+            "Only used for queries without `destinationTable`, and should only be enabled on read-only queries."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Boolean coalesce = false;
+
+    @Schema(
+        title = "The maximum wait for an identical running query when `coalesce` is `true`.",
+        description = "Once elapsed, the query runs its own job."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Duration coalesceTimeout = Duration.ofHours(1);
+
+    @Schema(
+        title = "Whether to emit metrics for each stage of the query plan.",
+        description = "Adds the average wait, read, compute and write durations, the records read and written, " +
+            "the shuffle output and spilled bytes and the slot ms of every stage, tagged with the stage name, " +
+            "and the maximum pending and active units seen on the job timeline."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Boolean stageMetrics = false;
+
     @Override
     public Query.Output run(RunContext runContext) throws Exception {
         BigQuery connection = this.connection(runContext);
         Logger logger = runContext.logger();
 
-        QueryJobConfiguration jobConfiguration = this.jobConfiguration(runContext);
+        if (!this.wait && (this.fetch || this.fetchOne || this.store)) {
+            throw new IllegalArgumentException("Invalid 'wait: false' with fetch, fetchOne or store properties, results are only available once the job is done.");
+        }
+
+        if (this.externalTables == null || this.externalTables.isEmpty()) {
+            return this.run(runContext, connection, null, logger);
+        }
+
+        if (this.externalTablesPrefix == null) {
+            throw new IllegalArgumentException("`externalTablesPrefix` is required to stage the `externalTables` files");
+        }
+
+        if (!this.wait) {
+            throw new IllegalArgumentException("Invalid 'wait: false' with externalTables, the staged files are deleted at the end of the task.");
+        }
+
+        Storage storage = AbstractGcs.connection(runContext, this.credentials(runContext), this.projectId);
+        List<BlobId> staged = new ArrayList<>();
+
+        try {
+            Map<String, ExternalTableDefinition> tableDefinitions = ExternalTableService.stage(
+                runContext,
+                storage,
+                this.externalTables,
+                this.externalTablesPrefix,
+                staged,
+                logger
+            );
+
+            return this.run(runContext, connection, tableDefinitions, logger);
+        } finally {
+            if (!staged.isEmpty()) {
+                storage.delete(staged);
+            }
+        }
+    }
+
+    private Query.Output run(RunContext runContext, BigQuery connection, Map<String, ExternalTableDefinition> tableDefinitions, Logger logger) throws Exception {
+        if (this.batchParameters != null) {
+            return this.executeBatch(runContext, connection, tableDefinitions, logger);
+        }
+
+        QueryJobConfiguration jobConfiguration = this.jobConfiguration(runContext, this.namedParameters, tableDefinitions);
+
+        // staged files have a new uri on each run, and a query writing a table must run to write it
+        boolean cacheable = this.resultCache && !this.dryRun && tableDefinitions == null && (this.fetch || this.fetchOne || this.store) &&
+            jobConfiguration.getDestinationTable() == null && this.writeDisposition == null;
+        boolean preflight = !this.dryRun && (this.maxBytesProcessed != null || this.batchPriorityBytes != null);
+
+        // a single dry run is shared by the cache key and the preflight checks
+        JobStatistics.QueryStatistics dryRunStatistics = cacheable || preflight ? QueryCache.dryRun(connection, jobConfiguration).getStatistics() : null;
+
+        Optional<String> cacheKey = Optional.empty();
+        if (cacheable && JobStatistics.QueryStatistics.StatementType.SELECT.equals(dryRunStatistics.getStatementType())) {
+            cacheKey = QueryCache.key(connection, jobConfiguration, dryRunStatistics, this.resultMode(), logger);
+
+            Optional<Output> cached = cacheKey.isPresent() ?
+                QueryCache.get(runContext, cacheKey.get(), this.resultCacheTtl, this::destinationTable) :
+                Optional.empty();
+
+            runContext.metric(Counter.of("result.cache.hit", cached.isPresent() ? 1 : 0, "fetch", this.fetch || this.fetchOne ? "true" : "false", "store", this.store ? "true" : "false"));
+
+            if (cached.isPresent()) {
+                logger.info("Reusing the cached output of job '{}'", cached.get().getJobId());
+                return cached.get();
+            }
+        }
+
+        if (preflight) {
+            jobConfiguration = this.preflight(runContext, jobConfiguration, dryRunStatistics, logger);
+        }
+
+        Output output = this.fastQuery && (this.fetch || this.fetchOne) && !this.dryRun && jobConfiguration.getPriority() != QueryJobConfiguration.Priority.BATCH ?
+            this.fastQuery(runContext, connection, jobConfiguration, logger) :
+            this.execute(runContext, connection, jobConfiguration, logger);
+
+        if (cacheKey.isPresent()) {
+            QueryCache.put(runContext, cacheKey.get(), output);
+        }
+
+        return output;
+    }
+
+    private QueryJobConfiguration preflight(RunContext runContext, QueryJobConfiguration jobConfiguration, JobStatistics.QueryStatistics statistics, Logger logger) {
+        long bytes = statistics.getTotalBytesProcessed() != null ? statistics.getTotalBytesProcessed() : 0L;
+
+        runContext.metric(Counter.of("preflight.bytes.processed", bytes, "fetch", this.fetch || this.fetchOne ? "true" : "false", "store", this.store ? "true" : "false"));
+        logger.debug("Query will process {} bytes", bytes);
+
+        if (this.maxBytesProcessed != null && bytes > this.maxBytesProcessed) {
+            throw new IllegalStateException("Query would process " + bytes + " bytes, more than the `maxBytesProcessed` limit of " + this.maxBytesProcessed + " bytes");
+        }
+
+        if (this.batchPriorityBytes != null && bytes > this.batchPriorityBytes && jobConfiguration.getPriority() != QueryJobConfiguration.Priority.BATCH) {
+            logger.info("Query will process {} bytes, more than {} bytes, running it with BATCH priority", bytes, this.batchPriorityBytes);
+
+            return jobConfiguration.toBuilder()
+                .setPriority(QueryJobConfiguration.Priority.BATCH)
+                .build();
+        }
+
+        return jobConfiguration;
+    }
+
+    private Output fastQuery(RunContext runContext, BigQuery connection, QueryJobConfiguration jobConfiguration, Logger logger) throws Exception {
+        logger.debug("Starting fast query: {}", jobConfiguration.getQuery());
+
+        String[] tags = {
+            "fetch", "true",
+            "store", "false",
+            "fast_query", "true",
+        };
+
+        long start = System.nanoTime();
+        TableResult result;
+
+        try {
+            // an explicit priority disables the short query api, interactive is the default one
+            result = connection.query(jobConfiguration.toBuilder().setPriority(null).build());
+        } catch (JobException e) {
+            logger.warn(
+                "Error query with errors:\n[\n - {}\n]",
+                String.join("\n - ", e.getErrors().stream().map(BigQueryError::toString).toArray(String[]::new))
+            );
+
+            throw new BigQueryException(e.getErrors());
+        }
+
+        runContext.metric(Counter.of("total.rows", result.getTotalRows(), tags));
+        runContext.metric(Counter.of("total.return.rows", result.getTotalRows(), tags));
+
+        Output output = this.fetchOutput(runContext, result, Output.builder(), tags, logger).build();
+
+        runContext.metric(Timer.of("duration", Duration.ofNanos(System.nanoTime() - start), tags));
 
+        return output;
+    }
+
+    private Output execute(RunContext runContext, BigQuery connection, QueryJobConfiguration jobConfiguration, Logger logger) throws Exception {
         logger.debug("Starting query: {}", jobConfiguration.getQuery());
 
-        Job queryJob = this.waitForJob(
-            logger,
-            () -> connection
-                .create(JobInfo.newBuilder(jobConfiguration)
+        Callable<Job> createJob = () -> this.waitForJob(
+            runContext,
+            () -> BigQueryService.create(
+                connection,
+                JobInfo.newBuilder(jobConfiguration)
                     .setJobId(BigQueryService.jobId(runContext, this))
-                    .build()
-                ),
-            this.dryRun
+                    .build(),
+                logger
+            ),
+            this.dryRun,
+            this.wait
         );
+
+        Job queryJob;
+        if (this.coalesce && !this.dryRun && this.wait && jobConfiguration.getDestinationTable() == null && jobConfiguration.getTableDefinitions() == null) {
+            Map.Entry<Job, Boolean> coalesced = QueryCoalescer.job(connection, this.credentials(runContext), jobConfiguration, this.coalesceTimeout, createJob, logger);
+            queryJob = coalesced.getKey();
+
+            runContext.metric(Counter.of("coalesced", coalesced.getValue() ? 1 : 0, "fetch", this.fetch || this.fetchOne ? "true" : "false", "store", this.store ? "true" : "false"));
+        } else {
+            queryJob = createJob.call();
+        }
+
+        if (!this.wait) {
+            logger.info("Job '{}' created, not waiting for its completion", queryJob.getJobId().getJob());
+
+            return Output.builder()
+                .jobId(queryJob.getJobId().getJob())
+                .build();
+        }
+
         JobStatistics.QueryStatistics queryJobStatistics = queryJob.getStatistics();
 
         QueryJobConfiguration config = queryJob.getConfiguration();
@@ -267,55 +694,223 @@ public class Query extends AbstractJob implements RunnableTask<Query.Output>, Qu
 
         this.metrics(runContext, queryJobStatistics, queryJob);
 
+        if (this.stageMetrics) {
+            this.stageMetrics(runContext, queryJobStatistics, queryJob);
+        }
+
         Output.OutputBuilder output = Output.builder()
             .jobId(queryJob.getJobId().getJob());
 
-        if (this.fetch || this.fetchOne || this.store) {
+        Table extractTable = this.store && this.extractPrefix != null && tableIdentity != null ? connection.getTable(tableIdentity) : null;
+
+        if (extractTable != null && extractTable.getNumBytes() != null && extractTable.getNumBytes() >= this.extractThresholdBytes) {
+            String[] tags = this.tags(queryJobStatistics, queryJob);
+
+            List<StorageReadService.StreamResult> files = this.storeExtract(runContext, connection, extractTable, logger);
+            long size = files.stream().mapToLong(StorageReadService.StreamResult::getRows).sum();
+
+            if (extractTable.getNumRows() != null) {
+                runContext.metric(Counter.of("total.return.rows", extractTable.getNumRows().longValue(), tags));
+            }
+
+            runContext.metric(Counter.of("extract.files", files.size(), tags));
+            runContext.metric(Counter.of("fetch.rows", size, tags));
+
+            this.storeOutput(runContext, files.stream().flatMap(file -> file.getChunks().stream()).collect(Collectors.toList()), output);
+        } else if (this.store && this.storageRead && tableIdentity != null) {
+            String[] tags = this.tags(queryJobStatistics, queryJob);
+            Table table = connection.getTable(tableIdentity);
+
+            if (table.getNumRows() != null) {
+                runContext.metric(Counter.of("total.rows", table.getNumRows().longValue(), tags));
+                runContext.metric(Counter.of("total.return.rows", table.getNumRows().longValue(), tags));
+            }
+
+            List<StorageReadService.StreamResult> streams = this.storeResult(table, queryJob, runContext);
+            long size = 0;
+
+            for (StorageReadService.StreamResult stream : streams) {
+                String[] streamTags = ArrayUtils.addAll(tags, "stream", String.valueOf(stream.getIndex()));
+
+                runContext.metric(Counter.of("stream.rows", stream.getRows(), streamTags));
+                runContext.metric(Counter.of("stream.bytes", stream.getBytes(), streamTags));
+                size += stream.getRows();
+            }
+
+            runContext.metric(Counter.of("fetch.rows", size, tags));
+            output.size(size);
+
+            if (this.mergeStreams || this.chunked()) {
+                this.storeOutput(runContext, streams.stream().flatMap(stream -> stream.getChunks().stream()).collect(Collectors.toList()), output);
+            } else {
+                List<URI> uris = new ArrayList<>();
+                for (StorageReadService.StreamResult stream : streams) {
+                    uris.add(runContext.putTempFile(stream.getChunks().get(0).getFile()));
+                }
+
+                output.uris(uris);
+            }
+        } else if (this.fetch || this.fetchOne || this.store) {
             TableResult result = queryJob.getQueryResults();
             String[] tags = this.tags(queryJobStatistics, queryJob);
 
             runContext.metric(Counter.of("total.rows", result.getTotalRows(), tags));
+            runContext.metric(Counter.of("total.return.rows", result.getTotalRows(), tags));
 
             if (this.store) {
-                Map.Entry<URI, Long> store = this.storeResult(result, runContext);
+                ChunkedStoreWriter store = this.storeResult(result, runContext, tags);
 
-                runContext.metric(Counter.of("fetch.rows", store.getValue(), tags));
-                output
-                    .uri(store.getKey())
-                    .size(store.getValue());
+                runContext.metric(Counter.of("fetch.rows", store.getRows(), tags));
+                this.storeOutput(runContext, store.getChunks(), output);
 
             } else {
-                List<Map<String, Object>> fetch = this.fetchResult(result);
+                this.fetchOutput(runContext, result, output, tags, logger);
+            }
+        } else if (!this.dryRun) {
+            // no rows are read, only the row count is requested
+            QueryResponse response = connection.getQueryResults(queryJob.getJobId(), BigQuery.QueryResultsOption.pageSize(0));
 
-                if (result.getTotalRows() > fetch.size()) {
-                    throw new IllegalStateException("Invalid fetch rows, got " + fetch.size() + ", expected " + result.getTotalRows());
-                }
+            runContext.metric(Counter.of("total.return.rows", response.getTotalRows(), this.tags(queryJobStatistics, queryJob)));
+        }
+
+        return output
+            .destinationTable(this.destinationTable(tableIdentity))
+            .build();
+    }
 
-                runContext.metric(Counter.of("fetch.rows", fetch.size(), tags));
-                output.size((long) fetch.size());
+    private Output executeBatch(RunContext runContext, BigQuery connection, Map<String, ExternalTableDefinition> tableDefinitions, Logger logger) throws Exception {
+        if (!this.store) {
+            throw new IllegalArgumentException("`batchParameters` can only be used with `store: true`");
+        }
 
-                if (this.fetch) {
-                    output.rows(fetch);
-                } else {
-                    output.row(fetch.size() > 0 ? fetch.get(0) : ImmutableMap.of());
+        logger.debug("Starting {} queries with a concurrency of {}", this.batchParameters.size(), this.batchConcurrency);
+
+        // the jobs are awaited on the io threads, the ones still running on failure are cancelled from the task thread
+        Map<JobId, Job> running = new ConcurrentHashMap<>();
+
+        List<BatchResult> results;
+        try {
+            results = Flowable.fromIterable(IntStream.range(0, this.batchParameters.size()).boxed().collect(Collectors.toList()))
+                .parallel(Math.max(1, this.batchConcurrency))
+                .runOn(Schedulers.io())
+                .map(index -> {
+                    Map<String, Object> parameters = new HashMap<>();
+                    if (this.namedParameters != null) {
+                        parameters.putAll(this.namedParameters);
+                    }
+                    parameters.putAll(this.batchParameters.get(index));
+
+                    QueryJobConfiguration jobConfiguration = this.jobConfiguration(runContext, parameters, tableDefinitions);
+
+                    Job queryJob = this.waitForJob(
+                        runContext,
+                        () -> BigQueryService.create(
+                            connection,
+                            JobInfo.newBuilder(jobConfiguration)
+                                .setJobId(BigQueryService.jobId(runContext, this, String.valueOf(index)))
+                                .build(),
+                            logger
+                        ),
+                        false,
+                        true,
+                        running
+                    );
+
+                    TableResult result = queryJob.getQueryResults();
+                    BigQueryRowConverter converter = BigQueryRowConverter.of(result.getSchema().getFields());
+                    ChunkedStoreWriter writer = this.storeWriter(runContext, converter);
+
+                    try (writer; PagePrefetchIterator<FieldValueList> iterator = PagePrefetchIterator.of(result, this.prefetchPages)) {
+                        while (iterator.hasNext()) {
+                            writer.write(converter.convert(iterator.next()));
+                        }
+                    }
+
+                    return BatchResult.builder()
+                        .index(index)
+                        .job(queryJob)
+                        .chunks(writer.getChunks())
+                        .rows(writer.getRows())
+                        .build();
+                })
+                .sequential()
+                .toSortedList(Comparator.comparingInt(BatchResult::getIndex))
+                .blockingGet();
+        } catch (RuntimeException e) {
+            // blockingGet reports the interruption of the task thread as a RuntimeException
+            if (interrupted(e)) {
+                for (Job job : running.values()) {
+                    cancel(runContext, job);
                 }
+                Thread.currentThread().interrupt();
             }
+
+            throw e;
         }
 
-        if (tableIdentity != null) {
-            DestinationTable destinationTable = new DestinationTable(tableIdentity.getProject(), tableIdentity.getDataset(), tableIdentity.getTable());
-            output.destinationTable(destinationTable);
+        // metrics are only emitted from the task thread
+        for (BatchResult result : results) {
+            JobStatistics.QueryStatistics statistics = result.getJob().getStatistics();
+
+            this.metrics(runContext, statistics, result.getJob());
+            runContext.metric(Counter.of("total.return.rows", result.getRows(), this.tags(statistics, result.getJob())));
+            runContext.metric(Counter.of("fetch.rows", result.getRows(), this.tags(statistics, result.getJob())));
+        }
+
+        Output.OutputBuilder output = Output.builder()
+            .jobIds(results.stream().map(result -> result.getJob().getJobId().getJob()).collect(Collectors.toList()));
+
+        return this.storeOutput(runContext, results.stream().flatMap(result -> result.getChunks().stream()).collect(Collectors.toList()), output)
+            .build();
+    }
+
+    private String resultMode() {
+        if (this.store) {
+            return "store:" + (this.storageRead && !this.mergeStreams ? "streams" : "file") + ":" + this.storeFormat + ":" + this.compression +
+                ":" + this.chunkRows + ":" + this.chunkBytes;
         }
 
-        return output.build();
+        return this.fetch ? "fetch" : "fetchOne";
+    }
+
+    private DestinationTable destinationTable(TableId tableIdentity) {
+        if (tableIdentity == null) {
+            return null;
+        }
+
+        return new DestinationTable(tableIdentity.getProject(), tableIdentity.getDataset(), tableIdentity.getTable());
     }
 
     protected QueryJobConfiguration jobConfiguration(RunContext runContext) throws IllegalVariableEvaluationException {
+        return this.jobConfiguration(runContext, this.namedParameters);
+    }
+
+    protected QueryJobConfiguration jobConfiguration(RunContext runContext, Map<String, Object> namedParameters) throws IllegalVariableEvaluationException {
+        return this.jobConfiguration(runContext, namedParameters, null);
+    }
+
+    private QueryJobConfiguration jobConfiguration(RunContext runContext, Map<String, Object> namedParameters, Map<String, ExternalTableDefinition> tableDefinitions) throws IllegalVariableEvaluationException {
         String sql = runContext.render(this.sql);
 
         QueryJobConfiguration.Builder builder = QueryJobConfiguration.newBuilder(sql)
             .setUseLegacySql(this.legacySql);
 
+        if (this.positionalParameters != null) {
+            for (Object value : this.positionalParameters) {
+                builder.addPositionalParameter(BigQueryService.queryParameter(runContext, value));
+            }
+        }
+
+        if (namedParameters != null) {
+            for (Map.Entry<String, Object> entry : namedParameters.entrySet()) {
+                builder.addNamedParameter(entry.getKey(), BigQueryService.queryParameter(runContext, entry.getValue()));
+            }
+        }
+
+        if (tableDefinitions != null) {
+            builder.setTableDefinitions(tableDefinitions);
+        }
+
         if (this.clusteringFields != null) {
             builder.setClustering(Clustering.newBuilder().setFields(runContext.render(this.clusteringFields)).build());
         }
@@ -417,6 +1012,12 @@ public class Query extends AbstractJob implements RunnableTask<Query.Output>, Qu
         )
         private String jobId;
 
+        @Schema(
+            title = "The job ids",
+            description = "Only populated if 'batchParameters' is set, in the order of the parameter sets."
+        )
+        private List<String> jobIds;
+
         @Schema(
             title = "List containing the fetched data",
             description = "Only populated if 'fetch' parameter is set to true."
@@ -440,13 +1041,33 @@ public class Query extends AbstractJob implements RunnableTask<Query.Output>, Qu
         )
         private URI uri;
 
+        @Schema(
+            title = "The uris of store result, one per read stream or one per chunk",
+            description = "Only populated if 'store' and 'storageRead' are set to true and 'mergeStreams' is set to false, " +
+                "or if 'chunkRows' or 'chunkBytes' is set."
+        )
+        private List<URI> uris;
+
+        @Schema(
+            title = "The stored chunks with their row count",
+            description = "Only populated if 'chunkRows' or 'chunkBytes' is set."
+        )
+        private List<Chunk> chunks;
+
+        @Schema(
+            title = "Whether a fetch limit was reached and the results were stored instead",
+            description = "Only populated if 'maxFetchRows' or 'maxFetchBytes' is reached with 'fetchLimitBehavior' set to 'STORE', " +
+                "the results are then available in 'uri'."
+        )
+        private Boolean fetchLimitReached;
+
         @Schema(
             title = "The destination table (if one) or the temporary table created automatically "
         )
         private DestinationTable destinationTable;
     }
 
-    private String[] tags(JobStatistics.QueryStatistics stats, Job queryJob) {
+    String[] tags(JobStatistics.QueryStatistics stats, Job queryJob) {
         return new String[]{
             "statement_type", stats.getStatementType().name(),
             "fetch", this.fetch || this.fetchOne ? "true" : "false",
@@ -456,6 +1077,37 @@ public class Query extends AbstractJob implements RunnableTask<Query.Output>, Qu
         };
     }
 
+    @Builder
+    @Getter
+    public static class Chunk {
+        @Schema(
+            title = "The uri of the chunk"
+        )
+        private URI uri;
+
+        @Schema(
+            title = "The number of rows in the chunk"
+        )
+        private Long rows;
+    }
+
+    @Builder
+    @Getter
+    private static class BatchResult {
+        private final int index;
+
+        private final Job job;
+
+        private final List<StoreWriter> chunks;
+
+        private final long rows;
+    }
+
+    public enum FetchLimitBehavior {
+        ERROR,
+        STORE
+    }
+
     public class DestinationTable {
         @Schema(
                 title = "The project of the table"
@@ -530,150 +1182,316 @@ public class Query extends AbstractJob implements RunnableTask<Query.Output>, Qu
             runContext.metric(Counter.of("cache.hit", stats.getCacheHit() ? 1 : 0, tags));
         }
 
-        if (queryJob.getQueryResults() != null) {
-            runContext.metric(Counter.of("total.return.rows", queryJob.getQueryResults().getTotalRows(), tags));
-        }
-
         runContext.metric(Timer.of("duration", Duration.ofMillis(stats.getEndTime() - stats.getStartTime()), tags));
     }
 
-    private List<Map<String, Object>> fetchResult(TableResult result) {
-        return StreamSupport
-            .stream(result.iterateAll().spliterator(), false)
-            .map(fieldValues -> this.convertRows(result, fieldValues))
-            .collect(Collectors.toList());
-    }
-
-    private Map.Entry<URI, Long> storeResult(TableResult result, RunContext runContext) throws IOException {
-        // temp file
-        File tempFile = runContext.tempFile(".ion").toFile();
-
-        try (
-            OutputStream output = new FileOutputStream(tempFile);
-        ) {
-            Flowable<Object> flowable = Flowable
-                .create(
-                    s -> {
-                        StreamSupport
-                            .stream(result.iterateAll().spliterator(), false)
-                            .forEach(fieldValues -> {
-                                s.onNext(this.convertRows(result, fieldValues));
-                            });
-
-                        s.onComplete();
-                    },
-                    BackpressureStrategy.BUFFER
-                )
-                .doOnNext(row -> FileSerde.write(output, row));
+    /**
+     * Fetch the rows of the result to the output, reading the next pages ahead with a {@link PagePrefetchIterator}.
+     */
+    private Output.OutputBuilder fetchOutput(RunContext runContext, TableResult result, Output.OutputBuilder output, String[] tags, Logger logger) throws IOException {
+        BigQueryRowConverter converter = BigQueryRowConverter.of(result.getSchema().getFields());
 
-            // metrics & finalize
-            Single<Long> count = flowable.count();
-            Long lineCount = count.blockingGet();
+        try (PagePrefetchIterator<FieldValueList> iterator = PagePrefetchIterator.of(result, this.fetchOne ? 0 : this.prefetchPages)) {
+            return this.fetchOutput(runContext, converter, iterator, result.getTotalRows(), output, tags, logger);
+        }
+    }
+
+    private Output.OutputBuilder fetchOutput(
+        RunContext runContext,
+        BigQueryRowConverter converter,
+        Iterator<FieldValueList> iterator,
+        long totalRows,
+        Output.OutputBuilder output,
+        String[] tags,
+        Logger logger
+    ) throws IOException {
+        Pair<List<Map<String, Object>>, Boolean> limited = this.fetchResult(converter, iterator);
+        List<Map<String, Object>> fetch = limited.getLeft();
+
+        if (limited.getRight()) {
+            String message = "Fetch limit reached after " + fetch.size() + " rows " +
+                "(maxFetchRows: " + this.maxFetchRows + ", maxFetchBytes: " + this.maxFetchBytes + ")";
+
+            if (this.fetchLimitBehavior == FetchLimitBehavior.ERROR) {
+                throw new IllegalStateException(message + ", use `store: true` for large results");
+            }
 
-            output.flush();
+            logger.warn("{}, storing the results instead", message);
 
-            return new AbstractMap.SimpleEntry<>(
-                runContext.putTempFile(tempFile),
-                lineCount
-            );
+            ChunkedStoreWriter store = this.storeResult(converter, fetch, iterator, runContext, tags);
+
+            runContext.metric(Counter.of("fetch.rows", store.getRows(), tags));
+            return this.storeOutput(runContext, store.getChunks(), output)
+                .fetchLimitReached(true);
         }
-    }
 
-    private Map<String, Object> convertRows(TableResult result, FieldValueList fieldValues) {
-        Map<String, Object> row = new LinkedHashMap<>();
-        result
-            .getSchema()
-            .getFields()
-            .forEach(field -> {
-                row.put(field.getName(), convertCell(field, fieldValues.get(field.getName()), false));
-            });
+        if (totalRows > fetch.size()) {
+            throw new IllegalStateException("Invalid fetch rows, got " + fetch.size() + ", expected " + totalRows);
+        }
 
-        return row;
-    }
+        runContext.metric(Counter.of("fetch.rows", fetch.size(), tags));
+        output.size((long) fetch.size());
 
-    private Object convertCell(Field field, FieldValue value, boolean isRepeated) {
-        if (field.getMode() == Field.Mode.REPEATED && !isRepeated) {
-            return value
-                .getRepeatedValue()
-                .stream()
-                .map(fieldValue -> this.convertCell(field, fieldValue, true))
-                .collect(Collectors.toList());
+        if (this.fetch) {
+            output.rows(fetch);
+        } else {
+            output.row(fetch.size() > 0 ? fetch.get(0) : ImmutableMap.of());
         }
 
-        if (value.isNull()) {
-            return null;
+        return output;
+    }
+
+    /**
+     * Fetch the rows until the end of the iterator or until a fetch limit is reached.
+     * The right side of the returned pair is true if a limit was reached, the iterator is then left on the next row.
+     */
+    private Pair<List<Map<String, Object>>, Boolean> fetchResult(BigQueryRowConverter converter, Iterator<FieldValueList> iterator) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        long bytes = 0;
+
+        while (iterator.hasNext()) {
+            if (this.maxFetchRows != null && rows.size() >= this.maxFetchRows) {
+                return Pair.of(rows, true);
+            }
+
+            Map<String, Object> row = converter.convert(iterator.next());
+            rows.add(row);
+
+            if (this.maxFetchBytes != null) {
+                bytes += estimatedSize(row);
+
+                if (bytes > this.maxFetchBytes) {
+                    return Pair.of(rows, true);
+                }
+            }
         }
 
-        if (LegacySQLTypeName.BOOLEAN.equals(field.getType())) {
-            return value.getBooleanValue();
+        return Pair.of(rows, false);
+    }
+
+    private static long estimatedSize(Object value) {
+        if (value == null) {
+            return 1;
+        } else if (value instanceof String) {
+            return ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof Map) {
+            long size = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += entry.getKey().toString().length() + estimatedSize(entry.getValue());
+            }
+            return size;
+        } else if (value instanceof Collection) {
+            long size = 0;
+            for (Object item : (Collection<?>) value) {
+                size += estimatedSize(item);
+            }
+            return size;
         }
 
-        if (LegacySQLTypeName.BYTES.equals(field.getType())) {
-            return value.getBytesValue();
+        return 8;
+    }
+
+    private ChunkedStoreWriter storeResult(TableResult result, RunContext runContext, String[] tags) throws IOException {
+        BigQueryRowConverter converter = BigQueryRowConverter.of(result.getSchema().getFields());
+
+        try (PagePrefetchIterator<FieldValueList> iterator = PagePrefetchIterator.of(result, this.prefetchPages)) {
+            return this.storeResult(converter, List.of(), iterator, runContext, tags);
         }
+    }
+
+    private ChunkedStoreWriter storeResult(
+        BigQueryRowConverter converter,
+        List<Map<String, Object>> fetched,
+        Iterator<FieldValueList> iterator,
+        RunContext runContext,
+        String[] tags
+    ) throws IOException {
+        ChunkedStoreWriter writer = this.storeWriter(runContext, converter);
+        long start = System.nanoTime();
+
+        // rows are pulled from the iterator, only the current and the prefetched pages are kept in memory
+        try (writer) {
+            for (Map<String, Object> row : fetched) {
+                writer.write(row);
+            }
 
-        if (LegacySQLTypeName.DATE.equals(field.getType())) {
-            return LocalDate.parse(value.getStringValue());
+            while (iterator.hasNext()) {
+                writer.write(converter.convert(iterator.next()));
+            }
         }
 
-        if (LegacySQLTypeName.DATETIME.equals(field.getType())) {
-            return Instant.parse(value.getStringValue() + "Z");
+        this.storeMetrics(runContext, writer, Duration.ofNanos(System.nanoTime() - start), tags);
+
+        return writer;
+    }
+
+    private ChunkedStoreWriter storeWriter(RunContext runContext, BigQueryRowConverter converter) {
+        return new ChunkedStoreWriter(
+            () -> StoreWriter.of(runContext, this.storeBufferSize, this.storeFormat, this.compression, converter.getFields()),
+            this.chunkRows,
+            this.chunkBytes
+        );
+    }
+
+    private boolean chunked() {
+        return this.chunkRows != null || this.chunkBytes != null;
+    }
+
+    /**
+     * Upload the stored files, merged into a single file or, with chunks, as many files.
+     */
+    private Output.OutputBuilder storeOutput(RunContext runContext, List<StoreWriter> files, Output.OutputBuilder output) throws IOException {
+        output.size(files.stream().mapToLong(StoreWriter::getRows).sum());
+
+        if (!this.chunked()) {
+            return output.uri(this.mergeFiles(files.stream().map(StoreWriter::getFile).collect(Collectors.toList()), runContext));
         }
 
-        if (LegacySQLTypeName.FLOAT.equals(field.getType())) {
-            return value.getDoubleValue();
+        List<Chunk> chunks = new ArrayList<>();
+        for (StoreWriter file : files) {
+            chunks.add(Chunk.builder()
+                .uri(runContext.putTempFile(file.getFile()))
+                .rows(file.getRows())
+                .build()
+            );
         }
 
-        if (LegacySQLTypeName.GEOGRAPHY.equals(field.getType())) {
-            Pattern p = Pattern.compile("^POINT\\(([0-9.]+) ([0-9.]+)\\)$");
-            Matcher m = p.matcher(value.getStringValue());
+        return output
+            .uris(chunks.stream().map(Chunk::getUri).collect(Collectors.toList()))
+            .chunks(chunks);
+    }
 
-            if (m.find()) {
-                return Arrays.asList(
-                    Double.parseDouble(m.group(1)),
-                    Double.parseDouble(m.group(2))
-                );
+    private void stageMetrics(RunContext runContext, JobStatistics.QueryStatistics stats, Job queryJob) {
+        String[] tags = this.tags(stats, queryJob);
+
+        if (stats.getQueryPlan() != null) {
+            for (QueryStage stage : stats.getQueryPlan()) {
+                String[] stageTags = ArrayUtils.addAll(tags, "stage", stage.getName());
+
+                stageTimer(runContext, "stage.wait.duration", stage.getWaitMsAvg(), stageTags);
+                stageTimer(runContext, "stage.read.duration", stage.getReadMsAvg(), stageTags);
+                stageTimer(runContext, "stage.compute.duration", stage.getComputeMsAvg(), stageTags);
+                stageTimer(runContext, "stage.write.duration", stage.getWriteMsAvg(), stageTags);
+                stageCounter(runContext, "stage.records.read", stage.getRecordsRead(), stageTags);
+                stageCounter(runContext, "stage.records.written", stage.getRecordsWritten(), stageTags);
+                stageCounter(runContext, "stage.shuffle.output.bytes", stage.getShuffleOutputBytes(), stageTags);
+                stageCounter(runContext, "stage.shuffle.output.bytes.spilled", stage.getShuffleOutputBytesSpilled(), stageTags);
+                stageCounter(runContext, "stage.slot.ms", stage.getSlotMs(), stageTags);
             }
+        }
 
-            throw new IllegalFormatFlagsException("Couldn't match '" + value.getStringValue() + "'");
+        if (stats.getTimeline() != null && !stats.getTimeline().isEmpty()) {
+            runContext.metric(Counter.of("timeline.max.pending.units", stats.getTimeline().stream().map(TimelineSample::getPendingUnits).filter(Objects::nonNull).mapToLong(Long::longValue).max().orElse(0), tags));
+            runContext.metric(Counter.of("timeline.max.active.units", stats.getTimeline().stream().map(TimelineSample::getActiveUnits).filter(Objects::nonNull).mapToLong(Long::longValue).max().orElse(0), tags));
         }
+    }
 
-        if (LegacySQLTypeName.INTEGER.equals(field.getType())) {
-            return value.getLongValue();
+    private static void stageTimer(RunContext runContext, String name, Long millis, String[] tags) {
+        if (millis != null) {
+            runContext.metric(Timer.of(name, Duration.ofMillis(millis), tags));
         }
+    }
 
-        if (LegacySQLTypeName.NUMERIC.equals(field.getType())) {
-            return value.getDoubleValue();
+    private static void stageCounter(RunContext runContext, String name, Long value, String[] tags) {
+        if (value != null) {
+            runContext.metric(Counter.of(name, value, tags));
         }
+    }
 
-        if (LegacySQLTypeName.RECORD.equals(field.getType())) {
-            AtomicInteger counter = new AtomicInteger(0);
+    private void storeMetrics(RunContext runContext, ChunkedStoreWriter writer, Duration duration, String[] tags) {
+        runContext.metric(Counter.of("store.bytes", writer.getBytes(), tags));
+        runContext.metric(Timer.of("store.duration", duration, tags));
 
-            return field
-                .getSubFields()
-                .stream()
-                .map(sub -> new AbstractMap.SimpleEntry<>(
-                    sub.getName(),
-                    this.convertCell(sub, value.getRepeatedValue().get(counter.get()), false)
-                ))
-                .peek(u -> counter.getAndIncrement())
-                // https://bugs.openjdk.java.net/browse/JDK-8148463
-                .collect(HashMap::new, (m, v) -> m.put(v.getKey(), v.getValue()), HashMap::putAll);
+        if (duration.toMillis() > 0) {
+            runContext.metric(Counter.of("store.rows.per.second", writer.getRows() * 1000 / duration.toMillis(), tags));
         }
+    }
+
+    private List<StorageReadService.StreamResult> storeResult(Table table, Job queryJob, RunContext runContext) throws IOException, IllegalVariableEvaluationException {
+        try (BigQueryReadClient client = StorageReadService.connection(runContext, this.credentials(runContext), this.projectId)) {
+            ReadSession session = StorageReadService.session(client, queryJob.getJobId().getProject(), table.getTableId(), null, null, this.maxStreams);
+            BigQueryRowConverter converter = StorageReadService.converter(session, table.getDefinition().getSchema().getFields());
+
+            runContext.logger().debug("Reading query results with {} stream(s)", session.getStreamsCount());
+
+            List<StorageReadService.StreamResult> results = StorageReadService.download(
+                client,
+                session,
+                converter,
+                this.parallelism != null ? this.parallelism : session.getStreamsCount(),
+                () -> this.storeWriter(runContext, converter)
+            );
+
+            if (!results.isEmpty()) {
+                return results;
+            }
+
+            // an empty result has no stream, store an empty file that is still valid for the format (Avro header with the schema)
+            ChunkedStoreWriter writer = this.storeWriter(runContext, converter);
+            writer.close();
 
-        if (LegacySQLTypeName.STRING.equals(field.getType())) {
-            return value.getStringValue();
+            return List.of(StorageReadService.StreamResult.builder()
+                .index(0)
+                .chunks(writer.getChunks())
+                .rows(0)
+                .bytes(writer.getBytes())
+                .build()
+            );
         }
+    }
+
+    private List<StorageReadService.StreamResult> storeExtract(RunContext runContext, BigQuery connection, Table table, Logger logger) throws Exception {
+        URI prefix = URI.create(StringUtils.stripEnd(runContext.render(this.extractPrefix), "/") + "/" + IdUtils.create() + "/");
+        String path = prefix.getPath().substring(1);
+
+        ExtractJobConfiguration configuration = ExtractJobConfiguration.newBuilder(table.getTableId(), "gs://" + prefix.getAuthority() + "/" + path + "part-*.avro")
+            .setFormat("AVRO")
+            .setUseAvroLogicalTypes(true)
+            .setLabels(BigQueryService.labels(runContext))
+            .build();
+
+        logger.debug("Extracting {} bytes of results to '{}'", table.getNumBytes(), prefix);
+
+        this.waitForJob(
+            runContext,
+            () -> BigQueryService.create(
+                connection,
+                JobInfo.newBuilder(configuration)
+                    .setJobId(BigQueryService.jobId(runContext, this, "extract"))
+                    .build(),
+                logger
+            )
+        );
 
-        if (LegacySQLTypeName.TIME.equals(field.getType())) {
-            return LocalTime.parse(value.getStringValue());
+        Storage storage = AbstractGcs.connection(runContext, this.credentials(runContext), this.projectId);
+        List<BlobId> blobs = ExtractReadService.list(storage, prefix.getAuthority(), path);
+
+        try {
+            return ExtractReadService.download(
+                runContext,
+                storage,
+                blobs,
+                table.getDefinition().getSchema().getFields(),
+                this.parallelism != null ? this.parallelism : Runtime.getRuntime().availableProcessors(),
+                converter -> this.storeWriter(runContext, converter)
+            );
+        } finally {
+            if (!blobs.isEmpty()) {
+                storage.delete(blobs);
+            }
         }
+    }
 
-        if (LegacySQLTypeName.TIMESTAMP.equals(field.getType())) {
-            return value.getTimestampInstant();
+    private URI mergeFiles(List<File> files, RunContext runContext) throws IOException {
+        if (files.size() == 1) {
+            return runContext.putTempFile(files.get(0));
         }
 
-        throw new IllegalArgumentException("Invalid type '" + field.getType() + "'");
-    }
+        File tempFile = runContext.tempFile(StoreWriter.extension(this.storeFormat, this.compression)).toFile();
+        StoreWriter.merge(files, tempFile, this.storeFormat);
 
+        return runContext.putTempFile(tempFile);
+    }
 }
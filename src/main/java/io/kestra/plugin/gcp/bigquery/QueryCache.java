@@ -0,0 +1,199 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.cloud.bigquery.*;
+import com.google.common.hash.Hashing;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the {@link Query} outputs across executions, stored in the kestra state store of the flow.
+ * The key contains the last modified time and the number of rows of every table referenced by the query, so any change
+ * on the tables invalidates the entry. The same key is used by {@link Trigger} to skip the queries on unchanged tables.
+ */
+class QueryCache {
+    private static final String STATE = "bigquery-query-cache";
+
+    private static final TypeReference<Map<String, Object>> TYPE_REFERENCE = new TypeReference<>() {};
+
+    /**
+     * Dry run a query, the statistics of the job list the referenced tables and estimate the bytes processed.
+     */
+    static Job dryRun(BigQuery connection, QueryJobConfiguration configuration) {
+        return connection.create(JobInfo.of(configuration.toBuilder().setDryRun(true).build()));
+    }
+
+    /**
+     * Compute the cache key of a query from the tables referenced in its dry run.
+     *
+     * @return the key, or empty if the query can't be cached (no referenced table or unknown modification time)
+     */
+    static Optional<String> key(BigQuery connection, QueryJobConfiguration configuration, JobStatistics.QueryStatistics statistics, String mode, Logger logger) {
+        if (statistics.getReferencedTables() == null || statistics.getReferencedTables().isEmpty()) {
+            logger.debug("Query doesn't reference any table, result is not cached");
+            return Optional.empty();
+        }
+
+        List<String> tables = new ArrayList<>();
+        for (TableId tableId : statistics.getReferencedTables()) {
+            Table table = connection.getTable(tableId);
+
+            if (table == null || table.getLastModifiedTime() == null) {
+                logger.debug("Unable to find the last modified time of '{}', result is not cached", tableId);
+                return Optional.empty();
+            }
+
+            tables.add(tableId.getProject() + "." + tableId.getDataset() + "." + tableId.getTable() + "@" + table.getLastModifiedTime() + "/" + table.getNumRows());
+        }
+
+        Collections.sort(tables);
+
+        return Optional.of(hash(identity(connection, configuration), mode, String.join("\n", tables)));
+    }
+
+    /**
+     * The parts of a query that define its results: project, location, sql, dialect, default dataset and parameters.
+     */
+    static String identity(BigQuery connection, QueryJobConfiguration configuration) {
+        return String.join(
+            "\n",
+            connection.getOptions().getProjectId(),
+            String.valueOf(connection.getOptions().getLocation()),
+            configuration.getQuery(),
+            String.valueOf(configuration.useLegacySql()),
+            String.valueOf(configuration.getDefaultDataset()),
+            String.valueOf(configuration.getPositionalParameters()),
+            String.valueOf(configuration.getNamedParameters())
+        );
+    }
+
+    static String hash(String... parts) {
+        return Hashing.sha256().hashString(String.join("\n", parts), StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Read back a cached output, with all the fields of the {@link Query.Output} of the cached run.
+     * The stored files are copied in the storage of the current execution, the files of the cached execution can be purged.
+     *
+     * @param destinationTable build the destination table output from its id
+     * @return the output, or empty if there is no valid entry or its files no longer exist
+     */
+    @SuppressWarnings("unchecked")
+    static Optional<Query.Output> get(RunContext runContext, String key, Duration ttl, Function<TableId, Query.DestinationTable> destinationTable) throws IOException {
+        Map<String, Object> entry;
+
+        try (InputStream inputStream = runContext.getTaskStateFile(STATE, key, false, false)) {
+            entry = JacksonMapper.ofIon().readValue(inputStream, TYPE_REFERENCE);
+        } catch (FileNotFoundException e) {
+            return Optional.empty();
+        }
+
+        Instant createdAt = Instant.parse((String) entry.get("createdAt"));
+        if (createdAt.plus(ttl).isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+
+        Query.Output.OutputBuilder output = Query.Output.builder()
+            .jobId((String) entry.get("jobId"))
+            .rows((List<Map<String, Object>>) entry.get("rows"))
+            .row((Map<String, Object>) entry.get("row"))
+            .jobIds((List<String>) entry.get("jobIds"))
+            .size(entry.get("size") != null ? ((Number) entry.get("size")).longValue() : null)
+            .fetchLimitReached((Boolean) entry.get("fetchLimitReached"));
+
+        if (entry.get("destinationTable") != null) {
+            Map<String, String> table = (Map<String, String>) entry.get("destinationTable");
+
+            output.destinationTable(destinationTable.apply(TableId.of(table.get("project"), table.get("dataset"), table.get("table"))));
+        }
+
+        // the same file can be listed in `uri`, `uris` and `chunks`, it's only copied once
+        Map<String, URI> copies = new HashMap<>();
+
+        try {
+            if (entry.get("uri") != null) {
+                output.uri(copy(runContext, (String) entry.get("uri"), copies));
+            }
+
+            if (entry.get("uris") != null) {
+                List<URI> uris = new ArrayList<>();
+                for (String uri : (List<String>) entry.get("uris")) {
+                    uris.add(copy(runContext, uri, copies));
+                }
+
+                output.uris(uris);
+            }
+
+            if (entry.get("chunks") != null) {
+                List<Query.Chunk> chunks = new ArrayList<>();
+                for (Map<String, Object> chunk : (List<Map<String, Object>>) entry.get("chunks")) {
+                    chunks.add(Query.Chunk.builder()
+                        .uri(copy(runContext, (String) chunk.get("uri"), copies))
+                        .rows(((Number) chunk.get("rows")).longValue())
+                        .build()
+                    );
+                }
+
+                output.chunks(chunks);
+            }
+        } catch (FileNotFoundException e) {
+            runContext.logger().debug("A file of the cached output no longer exists, the query is run again", e);
+            return Optional.empty();
+        }
+
+        return Optional.of(output.build());
+    }
+
+    private static URI copy(RunContext runContext, String uri, Map<String, URI> copies) throws IOException {
+        if (copies.containsKey(uri)) {
+            return copies.get(uri);
+        }
+
+        File tempFile = runContext.tempFile(runContext.fileExtension(URI.create(uri).getPath())).toFile();
+
+        try (InputStream inputStream = runContext.uriToInputStream(URI.create(uri))) {
+            Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        URI copy = runContext.putTempFile(tempFile);
+        copies.put(uri, copy);
+
+        return copy;
+    }
+
+    static void put(RunContext runContext, String key, Query.Output output) throws IOException {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("createdAt", Instant.now().toString());
+        entry.put("jobId", output.getJobId());
+        entry.put("jobIds", output.getJobIds());
+        entry.put("fetchLimitReached", output.getFetchLimitReached());
+        entry.put("destinationTable", output.getDestinationTable() != null ? Map.of(
+            "project", output.getDestinationTable().getProject(),
+            "dataset", output.getDestinationTable().getDataset(),
+            "table", output.getDestinationTable().getTable()
+        ) : null);
+        entry.put("rows", output.getRows());
+        entry.put("row", output.getRow());
+        entry.put("size", output.getSize());
+        entry.put("uri", output.getUri() != null ? output.getUri().toString() : null);
+        entry.put("uris", output.getUris() != null ? output.getUris().stream().map(URI::toString).collect(Collectors.toList()) : null);
+        entry.put("chunks", output.getChunks() != null ? output.getChunks().stream().map(chunk -> Map.of("uri", chunk.getUri().toString(), "rows", chunk.getRows())).collect(Collectors.toList()) : null);
+
+        runContext.putTaskStateFile(JacksonMapper.ofIon().writeValueAsBytes(entry), STATE, key, false, false);
+    }
+}
@@ -0,0 +1,86 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Share the job of identical queries running at the same time on this worker.
+ * The first query runs the job, the others wait for it and read the results of the same job.
+ */
+class QueryCoalescer {
+    private static final Map<String, CompletableFuture<Job>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    /**
+     * Run the job, or wait for the identical job already running with the same credentials.
+     *
+     * @param timeout the maximum wait for an identical job, the job is run by this task once elapsed
+     * @return the done job, and whether it was started by another task
+     */
+    static Map.Entry<Job, Boolean> job(
+        BigQuery connection,
+        GoogleCredentials credentials,
+        QueryJobConfiguration configuration,
+        Duration timeout,
+        Callable<Job> execute,
+        Logger logger
+    ) throws Exception {
+        // results are only shared between tasks running with the same identity, that can read the same tables
+        String key = QueryCache.hash(principal(credentials), QueryCache.identity(connection, configuration));
+
+        CompletableFuture<Job> future = new CompletableFuture<>();
+        CompletableFuture<Job> running = IN_FLIGHT.putIfAbsent(key, future);
+
+        if (running != null) {
+            logger.debug("Waiting for an identical query already running on this worker");
+
+            try {
+                Job job = connection.getJob(running.get(timeout.toMillis(), TimeUnit.MILLISECONDS).getJobId());
+                logger.info("Reusing the results of job '{}' started by an identical query", job.getJobId().getJob());
+
+                return Map.entry(job, true);
+            } catch (ExecutionException e) {
+                logger.warn("Identical query failed, running the query", e.getCause());
+            } catch (TimeoutException e) {
+                logger.warn("Identical query still running after {}, running the query", timeout);
+            }
+
+            return Map.entry(execute.call(), false);
+        }
+
+        try {
+            Job job = execute.call();
+            future.complete(job);
+
+            return Map.entry(job, false);
+        } catch (Throwable e) {
+            // errors included, so the waiting tasks never wait on a future that won't complete
+            future.completeExceptionally(e);
+
+            throw e;
+        } finally {
+            IN_FLIGHT.remove(key, future);
+        }
+    }
+
+    static String principal(GoogleCredentials credentials) {
+        if (credentials instanceof ServiceAccountCredentials) {
+            return ((ServiceAccountCredentials) credentials).getClientEmail();
+        }
+
+        // application default credentials, shared by all the tasks of the worker
+        return credentials.getClass().getName();
+    }
+}
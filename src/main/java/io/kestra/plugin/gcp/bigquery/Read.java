@@ -0,0 +1,200 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Read some columns of a table partition with 4 parallel streams",
+            code = {
+                "table: \"my_project.my_dataset.my_table\"",
+                "selectedFields:",
+                "  - id",
+                "  - name",
+                "rowRestriction: \"DATE(created_at) = '2023-12-25'\"",
+                "maxStreams: 4"
+            }
+        )
+    }
+)
+@Schema(
+    title = "Read a BigQuery table into a Kestra internal storage file, with the BigQuery Storage Read API.",
+    description = "The rows are streamed directly from the table storage, without running (and billing) a query, " +
+        "and the read streams are downloaded in parallel."
+)
+public class Read extends AbstractBigquery implements RunnableTask<Read.Output> {
+    @Schema(
+        title = "The table to read, as `project.dataset.table` or `dataset.table`."
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    private String table;
+
+    @Schema(
+        title = "The columns to read, all the columns are read if not set."
+    )
+    @PluginProperty(dynamic = true)
+    private List<String> selectedFields;
+
+    @Schema(
+        title = "A SQL filter applied on the rows while reading, like a `WHERE` clause.",
+        description = "For example `DATE(created_at) = '2023-12-25' AND country = 'FR'`. " +
+            "Filters on partitioning or clustering columns reduce the data scanned."
+    )
+    @PluginProperty(dynamic = true)
+    private String rowRestriction;
+
+    @Schema(
+        title = "The maximum number of parallel read streams requested to the BigQuery Storage Read API.",
+        description = "BigQuery may return fewer streams than requested. The streams are merged in order in the output file."
+    )
+    @PluginProperty
+    @Min(1)
+    @Builder.Default
+    private Integer maxStreams = 1;
+
+    @Schema(
+        title = "The number of threads used to download the read streams.",
+        description = "Default to the number of streams returned by BigQuery."
+    )
+    @PluginProperty
+    private Integer parallelism;
+
+    @Schema(
+        title = "The size in bytes of the write buffer used to store the rows."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Integer storeBufferSize = 1024 * 1024;
+
+    @Schema(
+        title = "The format of the stored file.",
+        description = "`AVRO` files keep the BigQuery types, with a schema derived from the table fields."
+    )
+    @PluginProperty
+    @Builder.Default
+    private StoreWriter.Format storeFormat = StoreWriter.Format.ION;
+
+    @Schema(
+        title = "The compression of the stored file."
+    )
+    @PluginProperty
+    @Builder.Default
+    private StoreWriter.Compression compression = StoreWriter.Compression.NONE;
+
+    @Override
+    public Read.Output run(RunContext runContext) throws Exception {
+        BigQuery connection = this.connection(runContext);
+        Logger logger = runContext.logger();
+
+        TableId tableId = BigQueryService.tableId(runContext.render(this.table));
+        Table table = connection.getTable(tableId);
+
+        if (table == null) {
+            throw new IllegalArgumentException("Unable to find table '" + runContext.render(this.table) + "'");
+        }
+
+        String[] tags = {
+            "format", this.storeFormat.name(),
+            "compression", this.compression.name(),
+        };
+
+        long start = System.nanoTime();
+
+        try (BigQueryReadClient client = StorageReadService.connection(runContext, this.credentials(runContext), this.projectId)) {
+            ReadSession session = StorageReadService.session(
+                client,
+                connection.getOptions().getProjectId(),
+                table.getTableId(),
+                this.selectedFields != null ? runContext.render(this.selectedFields) : null,
+                this.rowRestriction != null ? runContext.render(this.rowRestriction) : null,
+                this.maxStreams
+            );
+            BigQueryRowConverter converter = StorageReadService.converter(session, table.getDefinition().getSchema().getFields());
+
+            logger.debug("Reading table '{}' with {} stream(s)", tableId, session.getStreamsCount());
+
+            List<StorageReadService.StreamResult> streams = StorageReadService.download(
+                client,
+                session,
+                converter,
+                this.parallelism != null ? this.parallelism : session.getStreamsCount(),
+                () -> new ChunkedStoreWriter(
+                    () -> StoreWriter.of(runContext, this.storeBufferSize, this.storeFormat, this.compression, converter.getFields()),
+                    null,
+                    null
+                )
+            );
+
+            List<StoreWriter> files = streams.stream()
+                .flatMap(stream -> stream.getChunks().stream())
+                .collect(Collectors.toList());
+            long rows = files.stream().mapToLong(StoreWriter::getRows).sum();
+
+            File merged;
+            if (files.isEmpty()) {
+                // a table without rows has no stream, write an empty file with the table schema
+                try (StoreWriter writer = StoreWriter.of(runContext, this.storeBufferSize, this.storeFormat, this.compression, converter.getFields())) {
+                    merged = writer.getFile();
+                }
+            } else if (files.size() == 1) {
+                merged = files.get(0).getFile();
+            } else {
+                merged = runContext.tempFile(StoreWriter.extension(this.storeFormat, this.compression)).toFile();
+                StoreWriter.merge(files.stream().map(StoreWriter::getFile).collect(Collectors.toList()), merged, this.storeFormat);
+            }
+
+            runContext.metric(Counter.of("streams", session.getStreamsCount(), tags));
+            runContext.metric(Counter.of("rows", rows, tags));
+            runContext.metric(Counter.of("store.bytes", streams.stream().mapToLong(StorageReadService.StreamResult::getBytes).sum(), tags));
+            runContext.metric(Timer.of("duration", Duration.ofNanos(System.nanoTime() - start), tags));
+
+            return Output.builder()
+                .uri(runContext.putTempFile(merged))
+                .size(rows)
+                .build();
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The uri of the stored rows"
+        )
+        private URI uri;
+
+        @Schema(
+            title = "The number of rows read"
+        )
+        private Long size;
+    }
+}
@@ -0,0 +1,261 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.cloud.bigquery.TableId;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.JacksonMapper;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.slf4j.Logger;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import javax.validation.constraints.NotNull;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Store the rows appended to a table since the previous execution",
+            code = {
+                "table: \"my_project.my_dataset.my_table\"",
+                "mode: APPENDS"
+            }
+        ),
+        @Example(
+            title = "Store the rows inserted, updated or deleted since the previous execution",
+            code = {
+                "table: \"my_project.my_dataset.my_table\"",
+                "mode: CHANGES",
+                "lag: PT15M"
+            }
+        )
+    }
+)
+@Schema(
+    title = "Read the rows changed in a table since the previous execution, with the BigQuery change history functions.",
+    description = "The rows are read with the `APPENDS` or `CHANGES` table functions between the timestamp stored by the " +
+        "previous execution and the current time, so the bytes scanned depend on the changes and not on the table size. " +
+        "The rows are stored like `Query` with `store: true`, with the `_CHANGE_TYPE` and `_CHANGE_TIMESTAMP` columns.\n" +
+        "The end timestamp is stored in the kestra state of the task once the rows are stored, and used as the start " +
+        "of the next execution. The first execution reads from `initialTimestamp`, or from the start of the change history."
+)
+public class ReadChanges extends AbstractBigquery implements RunnableTask<ReadChanges.Output> {
+    private static final String STATE = "bigquery-read-changes";
+
+    private static final TypeReference<Map<String, Object>> TYPE_REFERENCE = new TypeReference<>() {};
+
+    private static final Duration CHANGES_MIN_LAG = Duration.ofMinutes(10);
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS 'UTC'")
+        .withZone(ZoneOffset.UTC);
+
+    @Schema(
+        title = "The table to read, as `project.dataset.table` or `dataset.table`."
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    private String table;
+
+    @Schema(
+        title = "The change history function used.",
+        description = "`APPENDS` returns only the appended rows. `CHANGES` also returns updated and deleted rows, " +
+            "but needs the `enable_change_history` option on the table."
+    )
+    @PluginProperty
+    @NotNull
+    @Builder.Default
+    private Mode mode = Mode.APPENDS;
+
+    @Schema(
+        title = "The start timestamp of the first execution, as an ISO 8601 instant.",
+        description = "If not set, the first execution reads all the change history available (limited by the time travel window)."
+    )
+    @PluginProperty(dynamic = true)
+    private String initialTimestamp;
+
+    @Schema(
+        title = "The delay between the current time and the end timestamp of the read.",
+        description = "Let the late commits of streaming inserts be read by the next execution. " +
+            "`CHANGES` can't read the last 10 minutes of history, so a lag of at least 10 minutes is always applied with this mode."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Duration lag = Duration.ZERO;
+
+    @Schema(
+        title = "The key of the state storing the last timestamp read.",
+        description = "Default to the table and the mode; set it to track many readers of the same table in a flow."
+    )
+    @PluginProperty(dynamic = true)
+    private String stateKey;
+
+    @Schema(
+        title = "The format of the stored file."
+    )
+    @PluginProperty
+    @Builder.Default
+    private StoreWriter.Format storeFormat = StoreWriter.Format.ION;
+
+    @Schema(
+        title = "The compression of the stored file."
+    )
+    @PluginProperty
+    @Builder.Default
+    private StoreWriter.Compression compression = StoreWriter.Compression.NONE;
+
+    @Schema(
+        title = "Whether to download the rows with the BigQuery Storage Read API.",
+        description = "Faster on large changes, see `Query.storageRead`."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Boolean storageRead = false;
+
+    @Override
+    public ReadChanges.Output run(RunContext runContext) throws Exception {
+        Logger logger = runContext.logger();
+
+        TableId tableId = BigQueryService.tableId(runContext.render(this.table));
+        String key = this.stateKey != null ?
+            runContext.render(this.stateKey) :
+            QueryCache.hash(tableId.getProject() + "." + tableId.getDataset() + "." + tableId.getTable(), this.mode.name());
+
+        Optional<Instant> last = this.lastTimestamp(runContext, key);
+        Instant from = last.isPresent() ?
+            last.get() :
+            (this.initialTimestamp != null ? Instant.parse(runContext.render(this.initialTimestamp)) : null);
+
+        Duration lag = this.mode == Mode.CHANGES && this.lag.compareTo(CHANGES_MIN_LAG) < 0 ? CHANGES_MIN_LAG : this.lag;
+        Instant to = Instant.now().minus(lag).truncatedTo(ChronoUnit.MICROS);
+
+        if (from != null && !from.isBefore(to)) {
+            logger.info("No history to read, the last timestamp read '{}' is after '{}'", from, to);
+
+            return Output.builder()
+                .size(0L)
+                .from(from)
+                .to(from)
+                .build();
+        }
+
+        logger.debug("Reading the {} of '{}' from '{}' to '{}'", this.mode, tableId, from, to);
+
+        Query query = Query.builder()
+            .id(this.id)
+            .type(Query.class.getName())
+            .projectId(this.projectId)
+            .serviceAccount(this.serviceAccount)
+            .scopes(this.scopes)
+            .location(this.location)
+            .retryAuto(this.retryAuto)
+            .retryReasons(this.retryReasons)
+            .retryMessages(this.retryMessages)
+            .sql(this.sql(tableId, from, to))
+            .store(true)
+            .storageRead(this.storageRead)
+            .storeFormat(this.storeFormat)
+            .compression(this.compression)
+            .build();
+
+        Query.Output run = query.run(runContext);
+
+        runContext.metric(Counter.of("rows", run.getSize(), "mode", this.mode.name()));
+
+        this.saveTimestamp(runContext, key, to);
+
+        return Output.builder()
+            .jobId(run.getJobId())
+            .uri(run.getUri())
+            .size(run.getSize())
+            .from(from)
+            .to(to)
+            .build();
+    }
+
+    String sql(TableId tableId, Instant from, Instant to) {
+        String table = tableId.getProject() != null ?
+            tableId.getProject() + "." + tableId.getDataset() + "." + tableId.getTable() :
+            tableId.getDataset() + "." + tableId.getTable();
+
+        return "SELECT * FROM " + this.mode.name() + "(" +
+            "TABLE `" + table + "`, " +
+            (from != null ? "TIMESTAMP '" + TIMESTAMP_FORMATTER.format(from) + "'" : "NULL") + ", " +
+            "TIMESTAMP '" + TIMESTAMP_FORMATTER.format(to) + "')";
+    }
+
+    private Optional<Instant> lastTimestamp(RunContext runContext, String key) throws IOException {
+        try (InputStream inputStream = runContext.getTaskStateFile(STATE, key, false, false)) {
+            Map<String, Object> state = JacksonMapper.ofIon().readValue(inputStream, TYPE_REFERENCE);
+
+            return Optional.of(Instant.parse((String) state.get("timestamp")));
+        } catch (FileNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void saveTimestamp(RunContext runContext, String key, Instant timestamp) throws IOException {
+        runContext.putTaskStateFile(
+            JacksonMapper.ofIon().writeValueAsBytes(Map.of("timestamp", timestamp.toString())),
+            STATE,
+            key,
+            false,
+            false
+        );
+    }
+
+    public enum Mode {
+        APPENDS,
+        CHANGES
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The job id"
+        )
+        private String jobId;
+
+        @Schema(
+            title = "The uri of the stored rows",
+            description = "Not populated if there is no history to read."
+        )
+        private URI uri;
+
+        @Schema(
+            title = "The number of rows read"
+        )
+        private Long size;
+
+        @Schema(
+            title = "The start timestamp of the read (inclusive)",
+            description = "Null if the whole change history was read."
+        )
+        private Instant from;
+
+        @Schema(
+            title = "The end timestamp of the read (exclusive), the start timestamp of the next execution"
+        )
+        private Instant to;
+    }
+}
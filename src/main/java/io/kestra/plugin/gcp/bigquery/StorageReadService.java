@@ -0,0 +1,174 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.rpc.ServerStream;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.*;
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.utils.Rethrow;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import lombok.Builder;
+import lombok.Getter;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class StorageReadService {
+    public static BigQueryReadClient connection(RunContext runContext, GoogleCredentials googleCredentials, String projectId) throws IllegalVariableEvaluationException, IOException {
+        BigQueryReadSettings.Builder builder = BigQueryReadSettings
+            .newBuilder()
+            .setCredentialsProvider(FixedCredentialsProvider.create(googleCredentials));
+
+        if (projectId != null) {
+            builder.setQuotaProjectId(runContext.render(projectId));
+        }
+
+        return BigQueryReadClient.create(builder.build());
+    }
+
+    public static ReadSession session(BigQueryReadClient client, String parentProject, TableId tableId, List<String> selectedFields, String rowRestriction, int maxStreams) {
+        ReadSession.TableReadOptions.Builder options = ReadSession.TableReadOptions.newBuilder();
+
+        if (selectedFields != null) {
+            options.addAllSelectedFields(selectedFields);
+        }
+
+        if (rowRestriction != null) {
+            options.setRowRestriction(rowRestriction);
+        }
+
+        ReadSession.Builder session = ReadSession.newBuilder()
+            .setTable(String.format(
+                "projects/%s/datasets/%s/tables/%s",
+                tableId.getProject() != null ? tableId.getProject() : parentProject,
+                tableId.getDataset(),
+                tableId.getTable()
+            ))
+            .setDataFormat(DataFormat.AVRO)
+            .setReadOptions(options);
+
+        CreateReadSessionRequest request = CreateReadSessionRequest.newBuilder()
+            .setParent("projects/" + parentProject)
+            .setReadSession(session)
+            .setMaxStreamCount(maxStreams)
+            .build();
+
+        return client.createReadSession(request);
+    }
+
+    public static BigQueryRowConverter converter(ReadSession session, FieldList fields) {
+        return BigQueryRowConverter.of(fields, avroSchema(session));
+    }
+
+    public static org.apache.avro.Schema avroSchema(ReadSession session) {
+        return new org.apache.avro.Schema.Parser().parse(session.getAvroSchema().getSchema());
+    }
+
+    /**
+     * Download all the streams of the session in parallel, each stream to its own writer, that can roll over to many files.
+     * The results are sorted by stream index.
+     */
+    public static List<StreamResult> download(
+        BigQueryReadClient client,
+        ReadSession session,
+        BigQueryRowConverter converter,
+        int parallelism,
+        Rethrow.SupplierChecked<ChunkedStoreWriter, IOException> writerFactory
+    ) {
+        List<String> streams = session.getStreamsList()
+            .stream()
+            .map(ReadStream::getName)
+            .collect(Collectors.toList());
+
+        if (streams.isEmpty()) {
+            return List.of();
+        }
+
+        return Flowable.fromIterable(IntStream.range(0, streams.size()).boxed().collect(Collectors.toList()))
+            .parallel(Math.max(1, Math.min(parallelism, streams.size())))
+            .runOn(Schedulers.io())
+            .map(index -> {
+                ChunkedStoreWriter writer = writerFactory.get();
+
+                try (writer) {
+                    read(client, session, streams.get(index), converter, writer::write);
+                }
+
+                return StreamResult.builder()
+                    .index(index)
+                    .chunks(writer.getChunks())
+                    .rows(writer.getRows())
+                    .bytes(writer.getBytes())
+                    .build();
+            })
+            .sequential()
+            .toSortedList(Comparator.comparingInt(StreamResult::getIndex))
+            .blockingGet();
+    }
+
+    /**
+     * Read all the rows of a stream of the session, the returned count is the number of rows read.
+     */
+    public static long read(
+        BigQueryReadClient client,
+        ReadSession session,
+        String stream,
+        BigQueryRowConverter converter,
+        Rethrow.ConsumerChecked<Map<String, Object>, IOException> consumer
+    ) throws IOException {
+        GenericDatumReader<GenericRecord> datumReader = new GenericDatumReader<>(avroSchema(session));
+        BinaryDecoder decoder = null;
+        GenericRecord record = null;
+        long count = 0;
+
+        ReadRowsRequest request = ReadRowsRequest.newBuilder()
+            .setReadStream(stream)
+            .build();
+
+        ServerStream<ReadRowsResponse> responses = client.readRowsCallable().call(request);
+
+        try {
+            for (ReadRowsResponse response : responses) {
+                if (!response.hasAvroRows()) {
+                    continue;
+                }
+
+                decoder = DecoderFactory.get().binaryDecoder(response.getAvroRows().getSerializedBinaryRows().toByteArray(), decoder);
+
+                while (!decoder.isEnd()) {
+                    record = datumReader.read(record, decoder);
+                    consumer.accept(converter.convert(record));
+                    count++;
+                }
+            }
+        } finally {
+            responses.cancel();
+        }
+
+        return count;
+    }
+
+    @Builder
+    @Getter
+    public static class StreamResult {
+        private final int index;
+
+        private final List<StoreWriter> chunks;
+
+        private final long rows;
+
+        private final long bytes;
+    }
+}
@@ -0,0 +1,153 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.FieldList;
+import com.google.common.io.CountingOutputStream;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.serializers.FileSerde;
+import lombok.Getter;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Write rows to a local file through a fixed size buffer, counting the rows and bytes written.
+ * Rows are written as ion, or as Avro with a schema derived from the BigQuery fields, optionally compressed.
+ */
+public class StoreWriter implements Closeable {
+    @Getter
+    private final File file;
+
+    private final CountingOutputStream counting;
+
+    private final OutputStream output;
+
+    private final org.apache.avro.Schema avroSchema;
+
+    private final DataFileWriter<GenericRecord> avroWriter;
+
+    @Getter
+    private long rows = 0;
+
+    private StoreWriter(File file, int bufferSize, Format format, Compression compression, FieldList fields) throws IOException {
+        this.file = file;
+        this.counting = new CountingOutputStream(new FileOutputStream(file));
+
+        if (format == Format.AVRO) {
+            this.output = new BufferedOutputStream(this.counting, bufferSize);
+            this.avroSchema = BigQueryToAvroConverter.schema(fields);
+            this.avroWriter = new DataFileWriter<>(new GenericDatumWriter<>(this.avroSchema));
+
+            if (compression == Compression.GZIP) {
+                // Avro compresses each block with deflate, the algorithm used by gzip
+                this.avroWriter.setCodec(CodecFactory.deflateCodec(6));
+            }
+
+            this.avroWriter.create(this.avroSchema, this.output);
+        } else {
+            OutputStream compressed = compression == Compression.GZIP ? new GZIPOutputStream(this.counting, bufferSize) : this.counting;
+
+            this.output = new BufferedOutputStream(compressed, bufferSize);
+            this.avroSchema = null;
+            this.avroWriter = null;
+        }
+    }
+
+    public static StoreWriter of(RunContext runContext, int bufferSize) throws IOException {
+        return of(runContext, bufferSize, Format.ION, Compression.NONE, null);
+    }
+
+    /**
+     * @param fields the fields of the rows, only needed for the Avro format
+     */
+    public static StoreWriter of(RunContext runContext, int bufferSize, Format format, Compression compression, FieldList fields) throws IOException {
+        return new StoreWriter(runContext.tempFile(extension(format, compression)).toFile(), bufferSize, format, compression, fields);
+    }
+
+    public static String extension(Format format, Compression compression) {
+        if (format == Format.AVRO) {
+            return ".avro";
+        }
+
+        return compression == Compression.GZIP ? ".ion.gz" : ".ion";
+    }
+
+    public void write(Map<String, Object> row) throws IOException {
+        if (this.avroWriter != null) {
+            this.avroWriter.append(BigQueryToAvroConverter.record(this.avroSchema, row));
+        } else {
+            FileSerde.write(this.output, row);
+        }
+
+        this.rows++;
+    }
+
+    /**
+     * The bytes flushed to the file, the bytes still in the buffer are only counted after {@link #close()}.
+     */
+    public long getBytes() {
+        return this.counting.getCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.avroWriter != null) {
+            this.avroWriter.close();
+        } else {
+            this.output.close();
+        }
+    }
+
+    /**
+     * Merge files written with the same format into the target file, deleting the merged files.
+     * Ion files (gzipped or not) are concatenated, Avro files are merged block by block without decoding the records.
+     */
+    public static void merge(List<File> files, File target, Format format) throws IOException {
+        if (format != Format.AVRO) {
+            try (OutputStream output = new FileOutputStream(target)) {
+                for (File file : files) {
+                    Files.copy(file.toPath(), output);
+                    Files.delete(file.toPath());
+                }
+            }
+
+            return;
+        }
+
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>())) {
+            for (int i = 0; i < files.size(); i++) {
+                try (DataFileStream<GenericRecord> stream = new DataFileStream<>(new BufferedInputStream(new FileInputStream(files.get(i))), new GenericDatumReader<>())) {
+                    if (i == 0) {
+                        String codec = stream.getMetaString(DataFileConstants.CODEC);
+
+                        writer.setCodec(CodecFactory.fromString(codec != null ? codec : DataFileConstants.NULL_CODEC));
+                        writer.create(stream.getSchema(), target);
+                    }
+
+                    writer.appendAllFrom(stream, false);
+                }
+
+                Files.delete(files.get(i).toPath());
+            }
+        }
+    }
+
+    public enum Format {
+        ION,
+        AVRO
+    }
+
+    public enum Compression {
+        NONE,
+        GZIP
+    }
+}
@@ -1,6 +1,12 @@
 package io.kestra.plugin.gcp.bigquery;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.cloud.bigquery.*;
+import io.kestra.core.exceptions.IllegalVariableEvaluationException;
+import io.kestra.core.models.annotations.PluginProperty;
 import io.kestra.core.models.conditions.ConditionContext;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.serializers.JacksonMapper;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -17,9 +23,12 @@ import io.kestra.core.runners.RunContext;
 import io.kestra.core.utils.IdUtils;
 import org.slf4j.Logger;
 
-import java.time.Duration;
-import java.util.Collections;
-import java.util.Optional;
+import java.io.*;
+import java.net.URI;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 @SuperBuilder
 @ToString
@@ -54,11 +63,30 @@ import java.util.Optional;
                 "    sql: \"SELECT * FROM `myproject.mydataset.mytable`\"",
                 "    store: true"
             }
+        ),
+        @Example(
+            title = "Start an execution for the new rows only, using an increasing column as watermark",
+            code = {
+                "interval: \"PT5M\"",
+                "sql: \"SELECT * FROM `myproject.mydataset.mytable`\"",
+                "fetch: true",
+                "watermarkColumn: created_at"
+            }
         )
     }
 )
 @StoreFetchValidation
-public class Trigger extends AbstractTrigger implements PollingTriggerInterface, TriggerOutput<Query.Output>, QueryInterface {
+public class Trigger extends AbstractTrigger implements PollingTriggerInterface, TriggerOutput<Trigger.Output>, QueryInterface {
+    private static final String WATERMARK_STATE = "bigquery-trigger-watermark";
+
+    private static final String TABLES_STATE = "bigquery-trigger-tables";
+
+    private static final TypeReference<Map<String, String>> TYPE_REFERENCE = new TypeReference<>() {};
+
+    private static final String WATERMARK_PARAMETER = "kestra_watermark";
+
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
     @Builder.Default
     private final Duration interval = Duration.ofSeconds(60);
 
@@ -81,34 +109,108 @@ public class Trigger extends AbstractTrigger implements PollingTriggerInterface,
     @Builder.Default
     private boolean fetchOne = false;
 
+    @Schema(
+        title = "A column of the query results that only increases, used to start executions for new rows only.",
+        description = "The highest value of the column seen is stored after each execution started, and the next evaluations " +
+            "only return the rows with a greater value, so the same rows don't start many executions and less data is scanned " +
+            "when the column is used for partitioning or clustering.\n" +
+            "With `fetchOne`, the row with the highest value is fetched.\n" +
+            "The column can be a TIMESTAMP, DATETIME, DATE, INT64, FLOAT64 or STRING. Only available with standard SQL."
+    )
+    @PluginProperty(dynamic = true)
+    private String watermarkColumn;
+
+    @Schema(
+        title = "Whether to skip the query when the tables it references didn't change since the last evaluation.",
+        description = "Before each evaluation, a dry run lists the tables referenced by the query and their last modified time " +
+            "and number of rows are read from their metadata; these calls are free. If nothing changed since the last " +
+            "query, no query job is run.\n" +
+            "Don't use it with queries depending on the current time, or on tables without metadata (like external tables)."
+    )
+    @PluginProperty
+    @Builder.Default
+    private boolean skipUnchanged = false;
+
     @Override
     public Optional<Execution> evaluate(ConditionContext conditionContext, TriggerContext context) throws Exception {
         RunContext runContext = conditionContext.getRunContext();
         Logger logger = runContext.logger();
 
-        Query task = Query.builder()
-            .id(this.id)
-            .type(Query.class.getName())
-            .projectId(this.projectId)
-            .serviceAccount(this.serviceAccount)
-            .scopes(this.scopes)
-            .sql(this.sql)
-            .legacySql(this.legacySql)
-            .fetch(this.fetch)
-            .store(this.store)
-            .fetchOne(this.fetchOne)
-            .build();
+        if (this.watermarkColumn != null && this.legacySql) {
+            throw new IllegalArgumentException("`watermarkColumn` is only available with standard SQL");
+        }
+
+        String column = this.watermarkColumn != null ? runContext.render(this.watermarkColumn) : null;
+        Optional<Map<String, String>> watermark = column != null ? this.state(runContext, WATERMARK_STATE) : Optional.empty();
+
+        Query task = this.query(
+            this.sql(runContext, column, watermark.isPresent()),
+            watermark.isPresent() ? Map.<String, Object>of(WATERMARK_PARAMETER, parameter(watermark.get())) : null
+        );
+
+        Optional<String> tablesVersion = Optional.empty();
+        if (this.skipUnchanged) {
+            // keyed on the query without the watermark, that changes after each execution started
+            Query unfiltered = this.query(runContext.render(this.sql), null);
+            BigQuery connection = unfiltered.connection(runContext);
+            QueryJobConfiguration configuration = unfiltered.jobConfiguration(runContext);
+
+            Job dryRun = QueryCache.dryRun(connection, configuration);
+            JobStatistics.QueryStatistics statistics = dryRun.getStatistics();
+
+            tablesVersion = QueryCache.key(connection, configuration, statistics, "trigger", logger);
+            boolean skipped = tablesVersion.isPresent() && tablesVersion.equals(this.state(runContext, TABLES_STATE).map(state -> state.get("version")));
+
+            // tagged like the metrics of the query
+            runContext.metric(Counter.of("skipped.evaluations", skipped ? 1 : 0, unfiltered.tags(statistics, dryRun)));
+
+            if (skipped) {
+                logger.debug("Tables referenced by the query didn't change since the last evaluation, skipping the query");
+                return Optional.empty();
+            }
+        }
+
         Query.Output run = task.run(runContext);
 
+        if (tablesVersion.isPresent()) {
+            this.saveState(runContext, TABLES_STATE, Map.of("version", tablesVersion.get()));
+        }
+
         logger.debug("Found '{}' rows from '{}'", run.getSize(), runContext.render(this.sql));
 
         if (run.getSize() == 0) {
             return Optional.empty();
         }
 
+        Output.OutputBuilder output = Output.builder()
+            .jobId(run.getJobId())
+            .rows(run.getRows())
+            .row(run.getRow())
+            .size(run.getSize())
+            .uri(run.getUri())
+            .destinationTable(run.getDestinationTable());
+
+        Optional<Object> next = column != null ? this.maxWatermark(runContext, task.connection(runContext), run, column) : Optional.empty();
+
+        if (next.isPresent()) {
+            // the column type never changes, it's only read from a dry run on the first rows found
+            StandardSQLTypeName type = watermark.isPresent() ?
+                StandardSQLTypeName.valueOf(watermark.get().get("type")) :
+                this.watermarkType(task.connection(runContext), task.jobConfiguration(runContext), column);
+
+            logger.debug("Watermark of '{}' moved from '{}' to '{}'", column, watermark.map(state -> state.get("value")).orElse(null), next.get());
+
+            // stored just before the execution is returned to the scheduler, so a failed evaluation reads the same rows again
+            this.saveState(runContext, WATERMARK_STATE, Map.of(
+                "type", type.name(),
+                "value", watermarkValue(type, next.get())
+            ));
+            output.watermark(next.get());
+        }
+
         ExecutionTrigger executionTrigger = ExecutionTrigger.of(
             this,
-            run
+            output.build()
         );
 
         Execution execution = Execution.builder()
@@ -122,4 +224,182 @@ public class Trigger extends AbstractTrigger implements PollingTriggerInterface,
 
         return Optional.of(execution);
     }
+
+    private Query query(String sql, Map<String, Object> namedParameters) {
+        return Query.builder()
+            .id(this.id)
+            .type(Query.class.getName())
+            .projectId(this.projectId)
+            .serviceAccount(this.serviceAccount)
+            .scopes(this.scopes)
+            .sql(sql)
+            .namedParameters(namedParameters)
+            .legacySql(this.legacySql)
+            .fetch(this.fetch)
+            .store(this.store)
+            .fetchOne(this.fetchOne)
+            .build();
+    }
+
+    private String sql(RunContext runContext, String column, boolean watermark) throws IllegalVariableEvaluationException {
+        String sql = runContext.render(this.sql);
+
+        if (column == null) {
+            return sql;
+        }
+
+        // with fetchOne, the row fetched must be the one with the highest watermark
+        return "SELECT * FROM (\n" + sql + "\n) WHERE `" + column + "` IS NOT NULL" +
+            (watermark ? " AND `" + column + "` > @" + WATERMARK_PARAMETER : "") +
+            (this.fetchOne ? " ORDER BY `" + column + "` DESC" : "");
+    }
+
+    /**
+     * The highest watermark of the results: from the fetched rows (ordered by the watermark with fetchOne), or with a
+     * {@code MAX()} on the result table of the query when the rows are stored, instead of reading back the stored file.
+     */
+    private Optional<Object> maxWatermark(RunContext runContext, BigQuery connection, Query.Output run, String column) throws InterruptedException {
+        if (run.getRow() != null) {
+            return Optional.ofNullable(run.getRow().get(column));
+        }
+
+        if (run.getRows() != null) {
+            return run.getRows().stream().map(row -> row.get(column)).filter(Objects::nonNull).max(Trigger::compare);
+        }
+
+        Query.DestinationTable table = run.getDestinationTable();
+        if (table == null) {
+            throw new IllegalStateException("Unable to find the result table of the query to compute the watermark");
+        }
+
+        TableResult result = connection.query(QueryJobConfiguration
+            .newBuilder("SELECT MAX(`" + column + "`) AS `" + column + "` " +
+                "FROM `" + table.getProject() + "." + table.getDataset() + "." + table.getTable() + "`")
+            .setUseLegacySql(false)
+            .setLabels(BigQueryService.labels(runContext))
+            .build()
+        );
+
+        Map<String, Object> row = BigQueryRowConverter.of(result.getSchema().getFields()).convert(result.getValues().iterator().next());
+
+        return Optional.ofNullable(row.get(column));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private Optional<Map<String, String>> state(RunContext runContext, String name) throws IOException {
+        try (InputStream inputStream = runContext.getTaskStateFile(name, this.id, false, false)) {
+            return Optional.of(JacksonMapper.ofIon().readValue(inputStream, TYPE_REFERENCE));
+        } catch (FileNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void saveState(RunContext runContext, String name, Map<String, String> state) throws IOException {
+        runContext.putTaskStateFile(JacksonMapper.ofIon().writeValueAsBytes(state), name, this.id, false, false);
+    }
+
+    private StandardSQLTypeName watermarkType(BigQuery connection, QueryJobConfiguration configuration, String column) {
+        Job dryRun = connection.create(JobInfo.of(configuration.toBuilder().setDryRun(true).build()));
+        JobStatistics.QueryStatistics statistics = dryRun.getStatistics();
+
+        return statistics.getSchema().getFields().get(column).getType().getStandardType();
+    }
+
+    /**
+     * The watermark as stored, in the literal format of its BigQuery type: DATETIME are decoded as UTC {@link Instant}.
+     */
+    private static String watermarkValue(StandardSQLTypeName type, Object value) {
+        switch (type) {
+            case TIMESTAMP:
+                return instant(value).toString();
+            case DATETIME:
+                return DATETIME_FORMATTER.format(value instanceof LocalDateTime ? (LocalDateTime) value : LocalDateTime.ofInstant(instant(value), ZoneOffset.UTC));
+            case DATE:
+            case INT64:
+            case FLOAT64:
+            case STRING:
+                return value.toString();
+            default:
+                // NUMERIC and BIGNUMERIC are decoded as double, the watermark would lose precision
+                throw new IllegalArgumentException("Unsupported type '" + type + "' for `watermarkColumn`");
+        }
+    }
+
+    private static Instant instant(Object value) {
+        if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        }
+
+        return Instant.parse(value.toString());
+    }
+
+    private static QueryParameterValue parameter(Map<String, String> watermark) {
+        String value = watermark.get("value");
+
+        switch (StandardSQLTypeName.valueOf(watermark.get("type"))) {
+            case TIMESTAMP:
+                return QueryParameterValue.timestamp(ChronoUnit.MICROS.between(Instant.EPOCH, Instant.parse(value)));
+            case DATETIME:
+                return QueryParameterValue.dateTime(value);
+            case DATE:
+                return QueryParameterValue.date(value);
+            case INT64:
+                return QueryParameterValue.int64(Long.parseLong(value));
+            case FLOAT64:
+                return QueryParameterValue.float64(Double.parseDouble(value));
+            default:
+                return QueryParameterValue.string(value);
+        }
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The job id"
+        )
+        private String jobId;
+
+        @Schema(
+            title = "List containing the fetched data",
+            description = "Only populated if 'fetch' parameter is set to true."
+        )
+        private List<Map<String, Object>> rows;
+
+        @Schema(
+            title = "Map containing the first row of fetched data",
+            description = "Only populated if 'fetchOne' parameter is set to true."
+        )
+        private Map<String, Object> row;
+
+        @Schema(
+            title = "The size of the rows fetch"
+        )
+        private Long size;
+
+        @Schema(
+            title = "The uri of store result",
+            description = "Only populated if 'store' is set to true."
+        )
+        private URI uri;
+
+        @Schema(
+            title = "The destination table (if one) or the temporary table created automatically "
+        )
+        private Query.DestinationTable destinationTable;
+
+        @Schema(
+            title = "The highest value of `watermarkColumn` in the results",
+            description = "Only populated if 'watermarkColumn' is set, the next evaluations only return rows with a greater value."
+        )
+        private Object watermark;
+    }
 }
@@ -0,0 +1,195 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.*;
+import io.kestra.core.models.annotations.Example;
+import io.kestra.core.models.annotations.Plugin;
+import io.kestra.core.models.annotations.PluginProperty;
+import io.kestra.core.models.executions.metrics.Counter;
+import io.kestra.core.models.executions.metrics.Timer;
+import io.kestra.core.models.tasks.RunnableTask;
+import io.kestra.core.runners.RunContext;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+@SuperBuilder
+@ToString
+@EqualsAndHashCode
+@Getter
+@NoArgsConstructor
+@Plugin(
+    examples = {
+        @Example(
+            title = "Start a batch query without blocking a worker, and wait for it in a later task",
+            full = true,
+            code = {
+                "id: bigquery-async",
+                "namespace: io.kestra.tests",
+                "",
+                "tasks:",
+                "  - id: query",
+                "    type: io.kestra.plugin.gcp.bigquery.Query",
+                "    sql: SELECT * FROM `my_project.my_dataset.my_table`",
+                "    destinationTable: my_project.my_dataset.my_result",
+                "    priority: BATCH",
+                "    wait: false",
+                "  - id: wait",
+                "    type: io.kestra.plugin.gcp.bigquery.WaitForJobs",
+                "    jobIds:",
+                "      - \"{{ outputs.query.jobId }}\"",
+            }
+        )
+    }
+)
+@Schema(
+    title = "Wait for the end of a list of BigQuery jobs.",
+    description = "All the jobs are polled together by a single thread, the task ends when every job is done. " +
+        "It's meant to be used with jobs started with `wait: false`."
+)
+public class WaitForJobs extends AbstractBigquery implements RunnableTask<WaitForJobs.Output> {
+    @Schema(
+        title = "The job ids to wait for"
+    )
+    @PluginProperty(dynamic = true)
+    @NotNull
+    @NotEmpty
+    private List<String> jobIds;
+
+    @Schema(
+        title = "The interval between two polls of the running jobs."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    @Schema(
+        title = "Whether to fail the task if any job ended in error.",
+        description = "The task still waits for all the jobs before failing."
+    )
+    @PluginProperty
+    @Builder.Default
+    private Boolean failOnError = true;
+
+    @Override
+    public WaitForJobs.Output run(RunContext runContext) throws Exception {
+        BigQuery connection = this.connection(runContext);
+        Logger logger = runContext.logger();
+
+        List<String> jobIds = runContext.render(this.jobIds);
+        // the jobs of another region are only found with their location
+        String location = runContext.render(this.location);
+        Set<String> running = new LinkedHashSet<>(jobIds);
+        Map<String, Job> done = new HashMap<>();
+        long start = System.nanoTime();
+
+        logger.debug("Waiting for {} jobs", running.size());
+
+        while (!running.isEmpty()) {
+            Iterator<String> iterator = running.iterator();
+            while (iterator.hasNext()) {
+                String jobId = iterator.next();
+                Job job = connection.getJob(
+                    JobId.newBuilder().setJob(jobId).setLocation(location).build(),
+                    BigQuery.JobOption.fields(BigQuery.JobField.STATUS, BigQuery.JobField.STATISTICS)
+                );
+
+                if (job == null) {
+                    throw new IllegalArgumentException("Job '" + jobId + "' doesn't exist");
+                }
+
+                if (job.getStatus().getState() == JobStatus.State.DONE) {
+                    logger.debug("Job '{}' is done", jobId);
+
+                    iterator.remove();
+                    done.put(jobId, job);
+                }
+            }
+
+            if (!running.isEmpty()) {
+                Thread.sleep(this.pollInterval.toMillis());
+            }
+        }
+
+        List<JobResult> results = jobIds
+            .stream()
+            .map(jobId -> this.result(done.get(jobId)))
+            .collect(Collectors.toList());
+
+        runContext.metric(Counter.of("jobs", results.size()));
+        runContext.metric(Counter.of("failed.jobs", results.stream().filter(JobResult::getFailed).count()));
+        runContext.metric(Timer.of("duration", Duration.ofNanos(System.nanoTime() - start)));
+
+        if (this.failOnError) {
+            for (String jobId : jobIds) {
+                BigQueryService.handleErrors(done.get(jobId), logger);
+            }
+        }
+
+        return Output.builder()
+            .jobs(results)
+            .build();
+    }
+
+    private JobResult result(Job job) {
+        JobStatistics statistics = job.getStatistics();
+        BigQueryError error = job.getStatus().getError();
+
+        JobResult.JobResultBuilder builder = JobResult.builder()
+            .jobId(job.getJobId().getJob())
+            .type(job.getConfiguration() != null ? job.getConfiguration().getType().name() : null)
+            .failed(error != null)
+            .error(error != null ? error.getMessage() : null);
+
+        if (statistics != null && statistics.getEndTime() != null && statistics.getStartTime() != null) {
+            builder.duration(Duration.ofMillis(statistics.getEndTime() - statistics.getStartTime()));
+        }
+
+        return builder.build();
+    }
+
+    @Builder
+    @Getter
+    public static class Output implements io.kestra.core.models.tasks.Output {
+        @Schema(
+            title = "The jobs, in the order of the `jobIds` property"
+        )
+        private List<JobResult> jobs;
+    }
+
+    @Builder
+    @Getter
+    public static class JobResult {
+        @Schema(
+            title = "The job id"
+        )
+        private String jobId;
+
+        @Schema(
+            title = "The job type",
+            description = "One of `QUERY`, `LOAD`, `EXTRACT` or `COPY`."
+        )
+        private String type;
+
+        @Schema(
+            title = "Whether the job ended in error"
+        )
+        private Boolean failed;
+
+        @Schema(
+            title = "The error message if the job ended in error"
+        )
+        private String error;
+
+        @Schema(
+            title = "The duration of the job"
+        )
+        private Duration duration;
+    }
+}
@@ -1,5 +1,6 @@
 package io.kestra.plugin.gcp.gcs;
 
+import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
 import io.kestra.core.exceptions.IllegalVariableEvaluationException;
@@ -24,11 +25,15 @@ import java.util.Map;
 @NoArgsConstructor
 public abstract class AbstractGcs extends AbstractTask {
     Storage connection(RunContext runContext) throws IOException, IllegalVariableEvaluationException {
+        return connection(runContext, this.credentials(runContext), this.projectId);
+    }
+
+    public static Storage connection(RunContext runContext, GoogleCredentials googleCredentials, String projectId) throws IllegalVariableEvaluationException {
         VersionProvider versionProvider = runContext.getApplicationContext().getBean(VersionProvider.class);
 
         return StorageOptions
             .newBuilder()
-            .setCredentials(this.credentials(runContext))
+            .setCredentials(googleCredentials)
             .setProjectId(runContext.render(projectId))
             .setHeaderProvider(() -> Map.of("user-agent", "Kestra/" + versionProvider.getVersion()))
             .build()
@@ -45,7 +45,7 @@ public class Download extends AbstractGcs implements RunnableTask<Download.Outpu
     @PluginProperty(dynamic = true)
     private String from;
 
-    static File download(RunContext runContext, Storage connection, BlobId source) throws IOException {
+    public static File download(RunContext runContext, Storage connection, BlobId source) throws IOException {
         Blob blob = connection.get(source);
         if (blob == null) {
             throw new IllegalArgumentException("Unable to find blob on bucket '" +  source.getBucket() +"' with path '" +  source.getName() +"'");
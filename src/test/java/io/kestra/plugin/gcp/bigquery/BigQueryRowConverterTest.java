@@ -0,0 +1,82 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BigQueryRowConverterTest {
+    @Test
+    @SuppressWarnings("unchecked")
+    void fieldValues() {
+        FieldList structFields = FieldList.of(
+            Field.of("x", LegacySQLTypeName.INTEGER),
+            Field.newBuilder("z", LegacySQLTypeName.INTEGER).setMode(Field.Mode.REPEATED).build()
+        );
+
+        FieldList fields = FieldList.of(
+            Field.of("string", LegacySQLTypeName.STRING),
+            Field.of("nullable", LegacySQLTypeName.INTEGER),
+            Field.of("bool", LegacySQLTypeName.BOOLEAN),
+            Field.of("float", LegacySQLTypeName.FLOAT),
+            Field.of("date", LegacySQLTypeName.DATE),
+            Field.of("datetime", LegacySQLTypeName.DATETIME),
+            Field.of("time", LegacySQLTypeName.TIME),
+            Field.of("timestamp", LegacySQLTypeName.TIMESTAMP),
+            Field.of("geopoint", LegacySQLTypeName.GEOGRAPHY),
+            Field.newBuilder("array", LegacySQLTypeName.INTEGER).setMode(Field.Mode.REPEATED).build(),
+            Field.of("struct", LegacySQLTypeName.RECORD, structFields)
+        );
+
+        FieldValueList values = FieldValueList.of(
+            Arrays.asList(
+                primitive("hello"),
+                primitive(null),
+                primitive("true"),
+                primitive("1.25"),
+                primitive("2008-12-25"),
+                primitive("2008-12-25T15:30:00.123456"),
+                primitive("15:30:00.123456"),
+                primitive("1230219000.123456"),
+                primitive("POINT(50.6833 -2.9)"),
+                FieldValue.of(FieldValue.Attribute.REPEATED, Arrays.asList(primitive("1"), primitive("2"))),
+                FieldValue.of(FieldValue.Attribute.RECORD, FieldValueList.of(
+                    Arrays.asList(
+                        primitive("4"),
+                        FieldValue.of(FieldValue.Attribute.REPEATED, List.of(primitive("3")))
+                    ),
+                    structFields
+                ))
+            ),
+            fields
+        );
+
+        Map<String, Object> row = BigQueryRowConverter.of(fields).convert(values);
+
+        assertThat(row.keySet(), contains("string", "nullable", "bool", "float", "date", "datetime", "time", "timestamp", "geopoint", "array", "struct"));
+        assertThat(row.get("string"), is("hello"));
+        assertThat(row.get("nullable"), is(nullValue()));
+        assertThat(row.get("bool"), is(true));
+        assertThat(row.get("float"), is(1.25D));
+        assertThat(row.get("date"), is(LocalDate.parse("2008-12-25")));
+        assertThat(row.get("datetime"), is(Instant.parse("2008-12-25T15:30:00.123456Z")));
+        assertThat(row.get("time"), is(LocalTime.parse("15:30:00.123456")));
+        assertThat(row.get("timestamp"), is(Instant.parse("2008-12-25T15:30:00.123456Z")));
+        assertThat((List<Double>) row.get("geopoint"), contains(50.6833, -2.9));
+        assertThat((List<Long>) row.get("array"), contains(1L, 2L));
+        assertThat(((Map<String, Object>) row.get("struct")).get("x"), is(4L));
+        assertThat((List<Long>) ((Map<String, Object>) row.get("struct")).get("z"), contains(3L));
+    }
+
+    private static FieldValue primitive(String value) {
+        return FieldValue.of(FieldValue.Attribute.PRIMITIVE, value);
+    }
+}
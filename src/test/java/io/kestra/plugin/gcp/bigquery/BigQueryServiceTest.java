@@ -1,5 +1,7 @@
 package io.kestra.plugin.gcp.bigquery;
 
+import com.google.cloud.bigquery.QueryParameterValue;
+import com.google.cloud.bigquery.StandardSQLTypeName;
 import com.google.common.collect.ImmutableMap;
 import io.kestra.core.runners.RunContextFactory;
 import io.kestra.core.utils.TestsUtils;
@@ -7,9 +9,13 @@ import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @MicronautTest
 class BigQueryServiceTest {
@@ -34,4 +40,26 @@ class BigQueryServiceTest {
         assertThat(labels.get("kestra_execution_id"), notNullValue());
         assertThat(labels.get("kestra_task_id"), is("query"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void arrayQueryParameter() throws Exception {
+        var task = Query.builder()
+            .id("query")
+            .type(Query.class.getName())
+            .sql("{{sql}}")
+            .build();
+
+        var runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+
+        QueryParameterValue value = BigQueryService.queryParameter(runContext, List.of(1, 2L, 3));
+        assertThat(value.getType(), is(StandardSQLTypeName.ARRAY));
+        assertThat(value.getArrayType(), is(StandardSQLTypeName.INT64));
+        assertThat(value.getArrayValues().size(), is(3));
+
+        assertThat(BigQueryService.queryParameter(runContext, List.of()).getArrayType(), is(StandardSQLTypeName.STRING));
+
+        assertThrows(IllegalArgumentException.class, () -> BigQueryService.queryParameter(runContext, List.of(1, "a")));
+        assertThrows(IllegalArgumentException.class, () -> BigQueryService.queryParameter(runContext, Arrays.asList(1, null)));
+        assertThrows(IllegalArgumentException.class, () -> BigQueryService.queryParameter(runContext, List.of(List.of(1))));
+    }
+}
@@ -0,0 +1,60 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.LegacySQLTypeName;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BigQueryToAvroConverterTest {
+    @Test
+    void record() {
+        FieldList fields = FieldList.of(
+            Field.newBuilder("string", LegacySQLTypeName.STRING).setMode(Field.Mode.REQUIRED).build(),
+            Field.of("nullable", LegacySQLTypeName.INTEGER),
+            Field.of("date", LegacySQLTypeName.DATE),
+            Field.of("time", LegacySQLTypeName.TIME),
+            Field.of("timestamp", LegacySQLTypeName.TIMESTAMP),
+            Field.newBuilder("array", LegacySQLTypeName.INTEGER).setMode(Field.Mode.REPEATED).build(),
+            Field.of("struct", LegacySQLTypeName.RECORD, FieldList.of(Field.of("x", LegacySQLTypeName.INTEGER)))
+        );
+
+        Schema schema = BigQueryToAvroConverter.schema(fields);
+
+        assertThat(schema.getField("string").schema().getType(), is(Schema.Type.STRING));
+        assertThat(schema.getField("nullable").schema().getType(), is(Schema.Type.UNION));
+        assertThat(schema.getField("array").schema().getType(), is(Schema.Type.ARRAY));
+
+        Map<String, Object> row = new HashMap<>();
+        row.put("string", "hello");
+        row.put("nullable", null);
+        row.put("date", LocalDate.parse("2008-12-25"));
+        row.put("time", LocalTime.parse("15:30:00.123456"));
+        row.put("timestamp", Instant.parse("2008-12-25T15:30:00.123456Z"));
+        row.put("array", Arrays.asList(1L, 2L));
+        row.put("struct", Map.of("x", 4L));
+
+        GenericData.Record record = BigQueryToAvroConverter.record(schema, row);
+
+        assertThat(GenericData.get().validate(schema, record), is(true));
+        assertThat(record.get("string"), is("hello"));
+        assertThat(record.get("nullable"), is(nullValue()));
+        assertThat(record.get("date"), is((int) LocalDate.parse("2008-12-25").toEpochDay()));
+        assertThat(record.get("time"), is(LocalTime.parse("15:30:00.123456").toNanoOfDay() / 1000));
+        assertThat(record.get("timestamp"), is(1230219000123456L));
+        assertThat((List<Long>) record.get("array"), contains(1L, 2L));
+        assertThat(((GenericData.Record) record.get("struct")).get("x"), is(4L));
+    }
+}
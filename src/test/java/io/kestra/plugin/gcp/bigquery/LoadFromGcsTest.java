@@ -21,6 +21,7 @@ import jakarta.inject.Inject;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 
 @MicronautTest
 class LoadFromGcsTest {
@@ -39,8 +40,7 @@ class LoadFromGcsTest {
     @Value("${kestra.tasks.gcs.bucket}")
     private String bucket;
 
-    @Test
-    void fromJson() throws Exception {
+    private String upload() throws Exception {
         File applicationFile = new File(Objects.requireNonNull(LoadFromGcsTest.class.getClassLoader()
             .getResource("data/us-states.json"))
             .toURI()
@@ -61,11 +61,16 @@ class LoadFromGcsTest {
 
         upload.run(TestsUtils.mockRunContext(this.runContextFactory, upload, ImmutableMap.of()));
 
+        return upload.getTo();
+    }
+
+    @Test
+    void fromJson() throws Exception {
         LoadFromGcs task = LoadFromGcs.builder()
             .id(LoadFromGcsTest.class.getSimpleName())
             .type(LoadFromGcs.class.getName())
             .from(Collections.singletonList(
-                upload.getTo()
+                this.upload()
             ))
             .destinationTable(project + "." + dataset + "." + FriendlyId.createFriendlyId())
             .format(AbstractLoad.Format.JSON)
@@ -81,4 +86,33 @@ class LoadFromGcsTest {
         AbstractLoad.Output run = task.run(runContext);
         assertThat(run.getRows(), is(50L));
     }
+
+    @Test
+    void deterministicJobId() throws Exception {
+        LoadFromGcs task = LoadFromGcs.builder()
+            .id(LoadFromGcsTest.class.getSimpleName())
+            .type(LoadFromGcs.class.getName())
+            .from(Collections.singletonList(
+                this.upload()
+            ))
+            .destinationTable(project + "." + dataset + "." + FriendlyId.createFriendlyId())
+            .format(AbstractLoad.Format.JSON)
+            .schema(ImmutableMap.of(
+                "fields", Arrays.asList(
+                    ImmutableMap.of("name", "name", "type", "STRING"),
+                    ImmutableMap.of("name", "post_abbr", "type", "STRING")
+                )
+            ))
+            .deterministicJobId(true)
+            .build();
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+
+        AbstractLoad.Output first = task.run(runContext);
+        // a restart of the same task run reattaches to the load job instead of loading the file again
+        AbstractLoad.Output second = task.run(runContext);
+
+        assertThat(first.getJobId(), startsWith("kestra_"));
+        assertThat(second.getJobId(), is(first.getJobId()));
+        assertThat(second.getRows(), is(50L));
+    }
 }
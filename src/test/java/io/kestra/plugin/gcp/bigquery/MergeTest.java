@@ -0,0 +1,131 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.devskiller.friendly_id.FriendlyId;
+import com.google.cloud.bigquery.*;
+import com.google.common.collect.ImmutableMap;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
+import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.utils.IdUtils;
+import io.kestra.core.utils.TestsUtils;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@MicronautTest
+class MergeTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Inject
+    private StorageInterface storageInterface;
+
+    @Value("${kestra.tasks.bigquery.project}")
+    private String project;
+
+    @Value("${kestra.tasks.bigquery.dataset}")
+    private String dataset;
+
+    private static final FieldList FIELDS = FieldList.of(
+        Field.of("id", StandardSQLTypeName.INT64),
+        Field.of("name", StandardSQLTypeName.STRING)
+    );
+
+    @Test
+    void sql() {
+        Merge task = Merge.builder()
+            .whenNotMatchedBySource(Merge.WhenNotMatchedBySource.DELETE)
+            .build();
+
+        assertThat(
+            task.sql(TableId.of("project", "dataset", "table"), TableId.of("project", "dataset", "staging"), FIELDS, List.of("id")),
+            is("MERGE `project.dataset.table` T\n" +
+                "USING `project.dataset.staging` S\n" +
+                "ON T.`id` = S.`id`\n" +
+                "WHEN MATCHED THEN UPDATE SET `name` = S.`name`\n" +
+                "WHEN NOT MATCHED THEN INSERT (`id`, `name`) VALUES (S.`id`, S.`name`)\n" +
+                "WHEN NOT MATCHED BY SOURCE THEN DELETE"
+            )
+        );
+
+        // keys match the columns ignoring case
+        assertThat(
+            task.sql(TableId.of("project", "dataset", "table"), TableId.of("project", "dataset", "staging"), FIELDS, List.of("ID")),
+            is(task.sql(TableId.of("project", "dataset", "table"), TableId.of("project", "dataset", "staging"), FIELDS, List.of("id")))
+        );
+    }
+
+    @Test
+    void invalidPolicies() {
+        Merge task = Merge.builder()
+            .whenMatched(Merge.WhenMatched.SKIP)
+            .whenNotMatched(Merge.WhenNotMatched.SKIP)
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> task.sql(TableId.of("project", "dataset", "table"), TableId.of("project", "dataset", "staging"), FIELDS, List.of("id")));
+        assertThrows(IllegalArgumentException.class, () -> Merge.builder().build().sql(TableId.of("project", "dataset", "table"), TableId.of("project", "dataset", "staging"), FIELDS, List.of("unknown")));
+    }
+
+    @Test
+    void run() throws Exception {
+        String table = this.project + "." + this.dataset + "." + FriendlyId.createFriendlyId();
+
+        File tempFile = File.createTempFile(this.getClass().getSimpleName().toLowerCase() + "_", ".ion");
+        try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+            FileSerde.write(outputStream, Map.of("id", 2L, "name", "Jane"));
+            FileSerde.write(outputStream, Map.of("id", 3L, "name", "Doe"));
+        }
+
+        URI put = storageInterface.put(
+            null,
+            new URI("/" + IdUtils.create() + ".ion"),
+            new FileInputStream(tempFile)
+        );
+
+        Merge task = Merge.builder()
+            .id(MergeTest.class.getSimpleName())
+            .type(Merge.class.getName())
+            .from(put.toString())
+            .destinationTable(table)
+            .keys(List.of("id"))
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        BigQuery connection = task.connection(runContext);
+
+        connection
+            .create(JobInfo
+                .newBuilder(QueryJobConfiguration.newBuilder(
+                    "CREATE TABLE `" + table + "` AS SELECT 1 AS id, 'John' AS name UNION ALL SELECT 2, 'Smith'"
+                ).build())
+                .setJobId(JobId.of(UUID.randomUUID().toString()))
+                .build()
+            )
+            .waitFor();
+
+        try {
+            Merge.Output run = task.run(runContext);
+
+            assertThat(run.getStagedRows(), is(2L));
+            assertThat(run.getInsertedRows(), is(1L));
+            assertThat(run.getUpdatedRows(), is(1L));
+            assertThat(run.getDeletedRows(), is(0L));
+        } finally {
+            connection.delete(BigQueryService.tableId(table));
+        }
+    }
+}
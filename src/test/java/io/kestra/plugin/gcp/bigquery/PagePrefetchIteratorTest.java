@@ -0,0 +1,110 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.api.gax.paging.Page;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PagePrefetchIteratorTest {
+    @Test
+    void prefetch() {
+        for (int depth : new int[]{0, 1, 3}) {
+            List<Integer> values = new ArrayList<>();
+
+            try (PagePrefetchIterator<Integer> iterator = PagePrefetchIterator.of(new FakePage(0, 5, 10, -1), depth)) {
+                iterator.forEachRemaining(values::add);
+            }
+
+            assertThat(values, is(IntStream.range(0, 50).boxed().collect(Collectors.toList())));
+        }
+    }
+
+    @Test
+    void emptyPages() {
+        try (PagePrefetchIterator<Integer> iterator = PagePrefetchIterator.of(new FakePage(0, 3, 0, -1), 2)) {
+            assertThat(iterator.hasNext(), is(false));
+        }
+    }
+
+    @Test
+    void error() {
+        try (PagePrefetchIterator<Integer> iterator = PagePrefetchIterator.of(new FakePage(0, 5, 10, 2), 2)) {
+            List<Integer> values = new ArrayList<>();
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> iterator.forEachRemaining(values::add));
+            assertThat(e.getMessage(), is("page 2"));
+            assertThat(values.size(), is(20));
+        }
+    }
+
+    @Test
+    void fatalError() {
+        try (PagePrefetchIterator<Integer> iterator = PagePrefetchIterator.of(new FakePage(0, 5, 10, 2, true), 2)) {
+            List<Integer> values = new ArrayList<>();
+
+            AssertionError e = assertThrows(AssertionError.class, () -> iterator.forEachRemaining(values::add));
+            assertThat(e.getMessage(), is("page 2"));
+            assertThat(values.size(), is(20));
+        }
+    }
+
+    private static class FakePage implements Page<Integer> {
+        private final int index;
+        private final int count;
+        private final int size;
+        private final int failing;
+        private final boolean fatal;
+
+        FakePage(int index, int count, int size, int failing) {
+            this(index, count, size, failing, false);
+        }
+
+        FakePage(int index, int count, int size, int failing, boolean fatal) {
+            this.index = index;
+            this.count = count;
+            this.size = size;
+            this.failing = failing;
+            this.fatal = fatal;
+        }
+
+        @Override
+        public boolean hasNextPage() {
+            return this.index + 1 < this.count;
+        }
+
+        @Override
+        public String getNextPageToken() {
+            return this.hasNextPage() ? String.valueOf(this.index + 1) : null;
+        }
+
+        @Override
+        public Page<Integer> getNextPage() {
+            if (this.index + 1 == this.failing) {
+                if (this.fatal) {
+                    throw new AssertionError("page " + this.failing);
+                }
+
+                throw new IllegalStateException("page " + this.failing);
+            }
+
+            return new FakePage(this.index + 1, this.count, this.size, this.failing, this.fatal);
+        }
+
+        @Override
+        public Iterable<Integer> iterateAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Iterable<Integer> getValues() {
+            return IntStream.range(this.index * this.size, (this.index + 1) * this.size).boxed().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.common.collect.ImmutableMap;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.TestsUtils;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@MicronautTest
+class QueriesTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void fetchOne() throws Exception {
+        Queries task = Queries.builder()
+            .id(QueriesTest.class.getSimpleName())
+            .type(Queries.class.getName())
+            .queries(IntStream.range(0, 5).mapToObj(i -> "SELECT " + i + " AS value").toList())
+            .concurrency(2)
+            .fetchOne(true)
+            .build();
+
+        Queries.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        List<Queries.QueryResult> results = run.getResults();
+        assertThat(results.size(), is(5));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(results.get(i).getJobId(), is(notNullValue()));
+            assertThat(results.get(i).getRow().get("value"), is((long) i));
+        }
+    }
+
+    @Test
+    void store() throws Exception {
+        Queries task = Queries.builder()
+            .id(QueriesTest.class.getSimpleName())
+            .type(Queries.class.getName())
+            .queries(List.of(QueryTest.sql(), QueryTest.sql()))
+            .store(true)
+            .build();
+
+        Queries.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getResults().size(), is(2));
+        assertThat(run.getResults().get(0).getUri(), is(notNullValue()));
+        assertThat(run.getResults().get(1).getSize(), is(1L));
+    }
+}
@@ -8,15 +8,25 @@ import io.micronaut.context.annotation.Value;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import lombok.extern.slf4j.Slf4j;
 import net.jodah.failsafe.FailsafeException;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import io.kestra.core.runners.RunContext;
 import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.serializers.FileSerde;
 import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.utils.IdUtils;
 import io.kestra.core.utils.TestsUtils;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStreamReader;
+import java.net.URI;
+import java.util.zip.GZIPInputStream;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -49,6 +59,9 @@ class QueryTest {
     @Value("${kestra.tasks.bigquery.dataset}")
     private String dataset;
 
+    @Value("${kestra.tasks.gcs.bucket}")
+    private String bucket;
+
     static String sql() {
         return "SELECT \n" +
             "  \"hello\" as string,\n" +
@@ -121,6 +134,183 @@ class QueryTest {
         );
     }
 
+    @Test
+    void storeFormat() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql(sql() + "\n UNION ALL \n " + sql())
+            .store(true)
+            .compression(StoreWriter.Compression.GZIP)
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getUri().getPath(), endsWith(".ion.gz"));
+        assertThat(
+            CharStreams.toString(new InputStreamReader(new GZIPInputStream(storageInterface.get(null, run.getUri())))),
+            containsString("{string:\"hello\",nullable:null,bool:true,int:1,float:1.25e0,date:2008-12-25")
+        );
+
+        Query avroTask = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql(task.getSql())
+            .store(true)
+            .storeFormat(StoreWriter.Format.AVRO)
+            .compression(StoreWriter.Compression.GZIP)
+            .build();
+
+        run = avroTask.run(TestsUtils.mockRunContext(runContextFactory, avroTask, ImmutableMap.of()));
+
+        assertThat(run.getUri().getPath(), endsWith(".avro"));
+        assertThat(run.getSize(), is(2L));
+
+        List<GenericRecord> records = new ArrayList<>();
+        try (DataFileStream<GenericRecord> stream = new DataFileStream<>(storageInterface.get(null, run.getUri()), new GenericDatumReader<>())) {
+            stream.forEach(records::add);
+        }
+
+        assertThat(records.size(), is(2));
+        assertThat(records.get(0).get("string").toString(), is("hello"));
+        assertThat(records.get(0).get("int"), is(1L));
+        assertThat(records.get(0).get("date"), is((int) LocalDate.parse("2008-12-25").toEpochDay()));
+        assertThat(((GenericRecord) records.get(0).get("struct")).get("x"), is(4L));
+    }
+
+    @Test
+    void storeAvroEmpty() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT 1 AS value LIMIT 0")
+            .store(true)
+            .storageRead(true)
+            .storeFormat(StoreWriter.Format.AVRO)
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getSize(), is(0L));
+        try (DataFileStream<GenericRecord> stream = new DataFileStream<>(storageInterface.get(null, run.getUri()), new GenericDatumReader<>())) {
+            assertThat(stream.getSchema().getField("value"), is(notNullValue()));
+            assertThat(stream.hasNext(), is(false));
+        }
+    }
+
+    @Test
+    void storeChunks() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT value FROM UNNEST(GENERATE_ARRAY(1, 5)) AS value ORDER BY value")
+            .store(true)
+            .chunkRows(2L)
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getUri(), is(nullValue()));
+        assertThat(run.getSize(), is(5L));
+        assertThat(run.getUris().size(), is(3));
+        assertThat(run.getChunks().stream().map(Query.Chunk::getRows).collect(Collectors.toList()), contains(2L, 2L, 1L));
+        assertThat(
+            CharStreams.toString(new InputStreamReader(storageInterface.get(null, run.getChunks().get(2).getUri()))),
+            is("{value:5}\n")
+        );
+    }
+
+    @Test
+    void storeExtract() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql(sql() + "\n UNION ALL \n " + sql())
+            .store(true)
+            .extractPrefix("gs://" + bucket + "/tasks/bigquery/extract")
+            .extractThresholdBytes(0L)
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        Query.Output run = task.run(runContext);
+
+        assertThat(run.getSize(), is(2L));
+        assertThat(
+            CharStreams.toString(new InputStreamReader(storageInterface.get(null, run.getUri()))),
+            startsWith("{string:\"hello\",nullable:null,bool:true,int:1,")
+        );
+        assertThat(runContext.metrics().stream().filter(metric -> metric.getName().equals("extract.files")).count(), is(1L));
+    }
+
+    @Test
+    void externalTables() throws Exception {
+        File tempFile = File.createTempFile(this.getClass().getSimpleName().toLowerCase() + "_", ".ion");
+        try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+            FileSerde.write(outputStream, Map.of("id", 1L, "name", "John"));
+            FileSerde.write(outputStream, Map.of("id", 2L, "name", "Doe"));
+        }
+
+        URI put = storageInterface.put(
+            null,
+            new URI("/" + IdUtils.create() + ".ion"),
+            new FileInputStream(tempFile)
+        );
+
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT name FROM customers WHERE id = 2")
+            .fetchOne(true)
+            .externalTablesPrefix("gs://" + bucket + "/tasks/bigquery/external")
+            .externalTables(Map.of("customers", put.toString()))
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getRow().get("name"), is("Doe"));
+    }
+
+    @Test
+    void storeStorageRead() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql(sql() + "\n UNION ALL \n " + sql())
+            .store(true)
+            .storageRead(true)
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getSize(), is(2L));
+        assertThat(
+            CharStreams.toString(new InputStreamReader(storageInterface.get(null, run.getUri()))),
+            is(StringUtils.repeat(
+                "{string:\"hello\",nullable:null,bool:true,int:1,float:1.25e0,date:2008-12-25,datetime:2008-12-25T15:30:00.123Z,time:LocalTime::\"15:30:00.123456\",timestamp:2008-12-25T15:30:00.123Z,geopoint:[50.6833e0,2.9e0],array:[1,2,3],struct:{v:null,x:4,y:0,z:[1,2,3]}}\n",
+                2
+            ))
+        );
+    }
+
+    @Test
+    void storeStorageReadStreams() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT repository_forks FROM `bigquery-public-data.samples.github_timeline` LIMIT 100000")
+            .store(true)
+            .storageRead(true)
+            .maxStreams(4)
+            .mergeStreams(false)
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getSize(), is(100000L));
+        assertThat(run.getUri(), is(nullValue()));
+        assertThat(run.getUris().size(), greaterThanOrEqualTo(1));
+    }
+
     @Test
     void fetchLongPage() throws Exception {
         Query task = Query.builder()
@@ -136,6 +326,288 @@ class QueryTest {
         assertThat(rows.size(), is(100000));
     }
 
+    @Test
+    void fetchLimit() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT repository_forks FROM `bigquery-public-data.samples.github_timeline` LIMIT 1000")
+            .fetch(true)
+            .maxFetchRows(100L)
+            .build();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of())));
+        assertThat(e.getMessage(), containsString("Fetch limit reached after 100 rows"));
+
+        Query storeTask = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql(task.getSql())
+            .fetch(true)
+            .maxFetchRows(100L)
+            .fetchLimitBehavior(Query.FetchLimitBehavior.STORE)
+            .build();
+
+        Query.Output run = storeTask.run(TestsUtils.mockRunContext(runContextFactory, storeTask, ImmutableMap.of()));
+
+        assertThat(run.getFetchLimitReached(), is(true));
+        assertThat(run.getRows(), is(nullValue()));
+        assertThat(run.getSize(), is(1000L));
+        assertThat(run.getUri(), is(notNullValue()));
+    }
+
+    @Test
+    void fastQuery() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT 1 AS int, 'kestra' AS string")
+            .fetchOne(true)
+            .fastQuery(true)
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getSize(), is(1L));
+        assertThat(run.getRow().get("int"), is(1L));
+        assertThat(run.getRow().get("string"), is("kestra"));
+    }
+
+    @Test
+    void stageMetrics() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT repository_language, COUNT(*) AS count FROM `bigquery-public-data.samples.github_timeline` GROUP BY 1")
+            .useQueryCache(false)
+            .stageMetrics(true)
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        task.run(runContext);
+
+        assertThat(runContext.metrics().stream().filter(metric -> metric.getName().equals("stage.records.read")).count(), greaterThan(0L));
+        assertThat(runContext.metrics().stream().filter(metric -> metric.getName().equals("stage.compute.duration")).count(), greaterThan(0L));
+    }
+
+    @Test
+    void coalesce() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT COUNT(DISTINCT repository_url) AS count FROM `bigquery-public-data.samples.github_timeline`")
+            .useQueryCache(false)
+            .fetchOne(true)
+            .coalesce(true)
+            .build();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(5);
+        List<Future<Query.Output>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            futures.add(executorService.submit(() -> task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()))));
+        }
+
+        Set<String> jobIds = new HashSet<>();
+        for (Future<Query.Output> future : futures) {
+            Query.Output output = future.get();
+
+            assertThat(output.getRow().get("count"), is(notNullValue()));
+            jobIds.add(output.getJobId());
+        }
+
+        executorService.shutdown();
+
+        assertThat(jobIds.size(), lessThan(5));
+    }
+
+    @Test
+    void cancelOnInterrupt() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT COUNT(DISTINCT CONCAT(repository_url, actor)) AS count FROM `bigquery-public-data.samples.github_timeline` a CROSS JOIN UNNEST(GENERATE_ARRAY(1, 100))")
+            .useQueryCache(false)
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<Query.Output> future = executorService.submit(() -> task.run(runContext));
+
+        Thread.sleep(5000);
+        future.cancel(true);
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+
+        assertThat(runContext.metrics().stream().filter(metric -> metric.getName().equals("job.cancelled")).count(), is(1L));
+    }
+
+    @Test
+    void totalReturnRows() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT 1 AS value UNION ALL SELECT 2")
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        task.run(runContext);
+
+        assertThat(
+            runContext.metrics().stream().filter(metric -> metric.getName().equals("total.return.rows")).map(metric -> (Double) metric.getValue()).collect(Collectors.toList()),
+            contains(2D)
+        );
+    }
+
+    @Test
+    void deterministicJobId() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT 1 AS value")
+            .fetchOne(true)
+            .deterministicJobId(true)
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+
+        Query.Output first = task.run(runContext);
+        Query.Output second = task.run(runContext);
+
+        assertThat(first.getJobId(), startsWith("kestra_"));
+        assertThat(second.getJobId(), is(first.getJobId()));
+        assertThat(second.getRow().get("value"), is(1L));
+    }
+
+    @Test
+    void preflight() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT repository_url FROM `bigquery-public-data.samples.github_timeline` LIMIT 1")
+            .fetchOne(true)
+            .maxBytesProcessed(1024L)
+            .build();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of())));
+        assertThat(e.getMessage(), containsString("more than the `maxBytesProcessed` limit of 1024 bytes"));
+
+        Query batchTask = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql(task.getSql())
+            .fetchOne(true)
+            .batchPriorityBytes(1024L)
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, batchTask, ImmutableMap.of());
+        Query.Output run = batchTask.run(runContext);
+
+        assertThat(run.getRow().get("repository_url"), is(notNullValue()));
+        assertThat(runContext.metrics().stream().filter(metric -> metric.getName().equals("preflight.bytes.processed")).count(), is(1L));
+    }
+
+    @Test
+    void resultCache() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT repository_forks FROM `bigquery-public-data.samples.github_timeline` LIMIT 10")
+            .fetch(true)
+            .resultCache(true)
+            .build();
+
+        Query.Output first = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+        Query.Output second = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(second.getJobId(), is(first.getJobId()));
+        assertThat(second.getRows().size(), is(10));
+        assertThat(second.getFetchLimitReached(), is(first.getFetchLimitReached()));
+        assertThat(second.getDestinationTable().getTable(), is(first.getDestinationTable().getTable()));
+    }
+
+    @Test
+    void resultCacheStore() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT repository_forks FROM `bigquery-public-data.samples.github_timeline` LIMIT 10")
+            .store(true)
+            .resultCache(true)
+            .build();
+
+        Query.Output first = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+        Query.Output second = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(second.getJobId(), is(first.getJobId()));
+        assertThat(second.getUri(), not(first.getUri()));
+        assertThat(
+            CharStreams.toString(new InputStreamReader(storageInterface.get(null, second.getUri()))),
+            is(CharStreams.toString(new InputStreamReader(storageInterface.get(null, first.getUri()))))
+        );
+    }
+
+    @Test
+    void resultCacheWrite() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT repository_forks FROM `bigquery-public-data.samples.github_timeline` LIMIT 10")
+            .destinationTable(project + "." + dataset + "." + FriendlyId.createFriendlyId())
+            .writeDisposition(JobInfo.WriteDisposition.WRITE_TRUNCATE)
+            .fetch(true)
+            .resultCache(true)
+            .build();
+
+        Query.Output first = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+        Query.Output second = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(second.getJobId(), not(first.getJobId()));
+    }
+
+    @Test
+    void parameters() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT @string AS string, @int AS int, @array AS `array`")
+            .namedParameters(Map.of(
+                "string", "{{ flow.id }}",
+                "int", 1,
+                "array", List.of(1, 2, 3)
+            ))
+            .fetchOne(true)
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getRow().get("string"), is("parameters"));
+        assertThat(run.getRow().get("int"), is(1L));
+        assertThat(run.getRow().get("array"), is(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void batchParameters() throws Exception {
+        Query task = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("SELECT @value AS value")
+            .batchParameters(IntStream.range(0, 5).mapToObj(i -> Map.<String, Object>of("value", i)).toList())
+            .batchConcurrency(2)
+            .store(true)
+            .build();
+
+        Query.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getSize(), is(5L));
+        assertThat(run.getJobIds().size(), is(5));
+        assertThat(
+            CharStreams.toString(new InputStreamReader(storageInterface.get(null, run.getUri()))),
+            is("{value:0}\n{value:1}\n{value:2}\n{value:3}\n{value:4}\n")
+        );
+    }
+
     @Test
     void destination() throws Exception {
         String friendlyId = FriendlyId.createFriendlyId();
@@ -0,0 +1,89 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.devskiller.friendly_id.FriendlyId;
+import com.google.cloud.bigquery.*;
+import com.google.common.collect.ImmutableMap;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.TestsUtils;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@MicronautTest
+class ReadChangesTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Value("${kestra.tasks.bigquery.project}")
+    private String project;
+
+    @Value("${kestra.tasks.bigquery.dataset}")
+    private String dataset;
+
+    private static void query(BigQuery connection, String sql) throws InterruptedException {
+        connection
+            .create(JobInfo
+                .newBuilder(QueryJobConfiguration.newBuilder(sql).build())
+                .setJobId(JobId.of(UUID.randomUUID().toString()))
+                .build()
+            )
+            .waitFor();
+    }
+
+    @Test
+    void sql() {
+        ReadChanges task = ReadChanges.builder()
+            .mode(ReadChanges.Mode.CHANGES)
+            .build();
+
+        assertThat(
+            task.sql(TableId.of("project", "dataset", "table"), Instant.parse("2023-12-25T10:00:00.123456Z"), Instant.parse("2023-12-25T11:00:00Z")),
+            is("SELECT * FROM CHANGES(TABLE `project.dataset.table`, TIMESTAMP '2023-12-25 10:00:00.123456 UTC', TIMESTAMP '2023-12-25 11:00:00.000000 UTC')")
+        );
+        assertThat(
+            task.sql(TableId.of("dataset", "table"), null, Instant.parse("2023-12-25T11:00:00Z")),
+            is("SELECT * FROM CHANGES(TABLE `dataset.table`, NULL, TIMESTAMP '2023-12-25 11:00:00.000000 UTC')")
+        );
+    }
+
+    @Test
+    void appends() throws Exception {
+        String table = this.project + "." + this.dataset + "." + FriendlyId.createFriendlyId();
+
+        ReadChanges task = ReadChanges.builder()
+            .id(ReadChangesTest.class.getSimpleName())
+            .type(ReadChanges.class.getName())
+            .table(table)
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        BigQuery connection = task.connection(runContext);
+
+        query(connection, "CREATE TABLE `" + table + "` AS SELECT 1 AS id UNION ALL SELECT 2 UNION ALL SELECT 3");
+
+        try {
+            ReadChanges.Output first = task.run(runContext);
+
+            assertThat(first.getFrom(), is(nullValue()));
+            assertThat(first.getSize(), is(3L));
+
+            query(connection, "INSERT INTO `" + table + "` (id) VALUES (4)");
+
+            ReadChanges.Output second = task.run(runContext);
+
+            assertThat(second.getFrom(), is(first.getTo()));
+            assertThat(second.getSize(), is(1L));
+        } finally {
+            connection.delete(BigQueryService.tableId(table));
+        }
+    }
+}
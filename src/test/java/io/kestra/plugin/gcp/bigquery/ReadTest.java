@@ -0,0 +1,77 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.devskiller.friendly_id.FriendlyId;
+import com.google.cloud.bigquery.*;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
+import io.kestra.core.runners.RunContext;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.storages.StorageInterface;
+import io.kestra.core.utils.TestsUtils;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@MicronautTest
+class ReadTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Inject
+    private StorageInterface storageInterface;
+
+    @Value("${kestra.tasks.bigquery.project}")
+    private String project;
+
+    @Value("${kestra.tasks.bigquery.dataset}")
+    private String dataset;
+
+    @Test
+    void run() throws Exception {
+        String table = this.project + "." + this.dataset + "." + FriendlyId.createFriendlyId();
+
+        Read task = Read.builder()
+            .id(ReadTest.class.getSimpleName())
+            .type(Read.class.getName())
+            .table(table)
+            .selectedFields(List.of("name"))
+            .rowRestriction("id > 1")
+            .maxStreams(2)
+            .build();
+
+        RunContext runContext = TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of());
+        BigQuery connection = task.connection(runContext);
+
+        connection
+            .create(JobInfo
+                .newBuilder(QueryJobConfiguration.newBuilder(
+                    "CREATE TABLE `" + table + "` AS " +
+                        "SELECT 1 AS id, 'John' AS name UNION ALL SELECT 2, 'Jane' UNION ALL SELECT 3, 'Doe'"
+                ).build())
+                .setJobId(JobId.of(UUID.randomUUID().toString()))
+                .build()
+            )
+            .waitFor();
+
+        try {
+            Read.Output run = task.run(runContext);
+
+            assertThat(run.getSize(), is(2L));
+
+            String content = CharStreams.toString(new InputStreamReader(storageInterface.get(null, run.getUri())));
+            assertThat(content.contains("{name:\"Jane\"}"), is(true));
+            assertThat(content.contains("{name:\"Doe\"}"), is(true));
+            assertThat(content.contains("John"), is(false));
+        } finally {
+            connection.delete(BigQueryService.tableId(table));
+        }
+    }
+}
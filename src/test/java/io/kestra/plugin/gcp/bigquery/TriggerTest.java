@@ -1,7 +1,10 @@
 package io.kestra.plugin.gcp.bigquery;
 
+import com.devskiller.friendly_id.FriendlyId;
 import com.google.common.collect.ImmutableMap;
+import io.kestra.core.models.conditions.ConditionContext;
 import io.kestra.core.models.executions.Execution;
+import io.kestra.core.models.triggers.TriggerContext;
 import io.kestra.core.queues.QueueFactoryInterface;
 import io.kestra.core.queues.QueueInterface;
 import io.kestra.core.repositories.LocalFlowRepositoryLoader;
@@ -11,6 +14,7 @@ import io.kestra.core.runners.Worker;
 import io.kestra.core.schedulers.AbstractScheduler;
 import io.kestra.core.schedulers.DefaultScheduler;
 import io.kestra.core.schedulers.SchedulerTriggerStateInterface;
+import io.kestra.core.utils.IdUtils;
 import io.kestra.core.utils.TestsUtils;
 import io.kestra.plugin.gcp.gcs.models.Blob;
 import io.micronaut.context.ApplicationContext;
@@ -20,12 +24,17 @@ import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 
 @MicronautTest
@@ -99,9 +108,150 @@ class TriggerTest {
             queueCount.await(1, TimeUnit.MINUTES);
 
             @SuppressWarnings("unchecked")
-            java.util.List<Blob> trigger = (java.util.List<Blob>) last.get().getTrigger().getVariables().get("rows");
+            List<Blob> trigger = (List<Blob>) last.get().getTrigger().getVariables().get("rows");
 
             assertThat(trigger.size(), is(2));
         }
     }
+
+    @Test
+    void watermark() throws Exception {
+        String table = project + "." + dataset + "." + FriendlyId.createFriendlyId();
+
+        Trigger trigger = Trigger.builder()
+            .id(TriggerTest.class.getSimpleName() + IdUtils.create())
+            .type(Trigger.class.getName())
+            .sql("SELECT * FROM `" + table + "`")
+            .fetch(true)
+            .watermarkColumn("number")
+            .build();
+
+        Query create = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("CREATE TABLE `" + table + "` AS (SELECT 1 AS number UNION ALL SELECT 2 AS number)")
+            .build();
+        create.run(TestsUtils.mockRunContext(runContextFactory, create, ImmutableMap.of()));
+
+        Map.Entry<ConditionContext, TriggerContext> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        Optional<Execution> execution = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(execution.isPresent(), is(true));
+        assertThat(((List<?>) execution.get().getTrigger().getVariables().get("rows")).size(), is(2));
+        assertThat(((Number) execution.get().getTrigger().getVariables().get("watermark")).longValue(), is(2L));
+
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+        Query insert = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("INSERT INTO `" + table + "` (number) VALUES (3)")
+            .build();
+        insert.run(TestsUtils.mockRunContext(runContextFactory, insert, ImmutableMap.of()));
+
+        execution = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(execution.isPresent(), is(true));
+        assertThat(((List<?>) execution.get().getTrigger().getVariables().get("rows")).size(), is(1));
+        assertThat(((Number) execution.get().getTrigger().getVariables().get("watermark")).longValue(), is(3L));
+    }
+
+    @Test
+    void watermarkDatetimeFetchOne() throws Exception {
+        String table = project + "." + dataset + "." + FriendlyId.createFriendlyId();
+
+        Trigger trigger = Trigger.builder()
+            .id(TriggerTest.class.getSimpleName() + IdUtils.create())
+            .type(Trigger.class.getName())
+            .sql("SELECT * FROM `" + table + "`")
+            .fetchOne(true)
+            .watermarkColumn("created")
+            .build();
+
+        Query create = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("CREATE TABLE `" + table + "` AS (" +
+                "SELECT DATETIME '2024-01-01 10:00:00' AS created UNION ALL SELECT DATETIME '2024-01-02 10:00:00' AS created" +
+                ")")
+            .build();
+        create.run(TestsUtils.mockRunContext(runContextFactory, create, ImmutableMap.of()));
+
+        Map.Entry<ConditionContext, TriggerContext> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        Optional<Execution> execution = trigger.evaluate(context.getKey(), context.getValue());
+        assertThat(execution.isPresent(), is(true));
+        assertThat(execution.get().getTrigger().getVariables().get("watermark").toString(), is("2024-01-02T10:00:00Z"));
+
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+    }
+
+    @Test
+    void skipUnchanged() throws Exception {
+        String table = project + "." + dataset + "." + FriendlyId.createFriendlyId();
+
+        Trigger trigger = Trigger.builder()
+            .id(TriggerTest.class.getSimpleName() + IdUtils.create())
+            .type(Trigger.class.getName())
+            .sql("SELECT * FROM `" + table + "`")
+            .fetch(true)
+            .skipUnchanged(true)
+            .build();
+
+        Query create = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("CREATE TABLE `" + table + "` AS (SELECT 1 AS number UNION ALL SELECT 2 AS number)")
+            .build();
+        create.run(TestsUtils.mockRunContext(runContextFactory, create, ImmutableMap.of()));
+
+        Map.Entry<ConditionContext, TriggerContext> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(true));
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+        List<Double> skipped = context.getKey().getRunContext().metrics()
+            .stream()
+            .filter(metric -> metric.getName().equals("skipped.evaluations"))
+            .map(metric -> (Double) metric.getValue())
+            .collect(Collectors.toList());
+        assertThat(skipped, contains(0D, 1D));
+
+        assertThat(context.getKey().getRunContext().metrics()
+            .stream()
+            .filter(metric -> metric.getName().equals("skipped.evaluations"))
+            .allMatch(metric -> "SELECT".equals(metric.getTags().get("statement_type"))), is(true));
+    }
+
+    @Test
+    void skipUnchangedWatermark() throws Exception {
+        String table = project + "." + dataset + "." + FriendlyId.createFriendlyId();
+
+        Trigger trigger = Trigger.builder()
+            .id(TriggerTest.class.getSimpleName() + IdUtils.create())
+            .type(Trigger.class.getName())
+            .sql("SELECT * FROM `" + table + "`")
+            .fetch(true)
+            .watermarkColumn("number")
+            .skipUnchanged(true)
+            .build();
+
+        Query create = Query.builder()
+            .id(QueryTest.class.getSimpleName())
+            .type(Query.class.getName())
+            .sql("CREATE TABLE `" + table + "` AS (SELECT 1 AS number UNION ALL SELECT 2 AS number)")
+            .build();
+        create.run(TestsUtils.mockRunContext(runContextFactory, create, ImmutableMap.of()));
+
+        Map.Entry<ConditionContext, TriggerContext> context = TestsUtils.mockTrigger(runContextFactory, trigger);
+
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(true));
+        assertThat(trigger.evaluate(context.getKey(), context.getValue()).isPresent(), is(false));
+
+        List<Double> skipped = context.getKey().getRunContext().metrics()
+            .stream()
+            .filter(metric -> metric.getName().equals("skipped.evaluations"))
+            .map(metric -> (Double) metric.getValue())
+            .collect(Collectors.toList());
+        assertThat(skipped, contains(0D, 1D));
+    }
 }
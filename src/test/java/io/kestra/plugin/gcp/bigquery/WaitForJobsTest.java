@@ -0,0 +1,55 @@
+package io.kestra.plugin.gcp.bigquery;
+
+import com.google.common.collect.ImmutableMap;
+import io.kestra.core.runners.RunContextFactory;
+import io.kestra.core.utils.TestsUtils;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@MicronautTest
+class WaitForJobsTest {
+    @Inject
+    private RunContextFactory runContextFactory;
+
+    @Test
+    void run() throws Exception {
+        List<String> jobIds = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            Query query = Query.builder()
+                .id(WaitForJobsTest.class.getSimpleName())
+                .type(Query.class.getName())
+                .sql("SELECT " + i)
+                .wait(false)
+                .build();
+
+            Query.Output output = query.run(TestsUtils.mockRunContext(runContextFactory, query, ImmutableMap.of()));
+            assertThat(output.getJobId(), is(notNullValue()));
+            assertThat(output.getSize(), is(nullValue()));
+
+            jobIds.add(output.getJobId());
+        }
+
+        WaitForJobs task = WaitForJobs.builder()
+            .id(WaitForJobsTest.class.getSimpleName())
+            .type(WaitForJobs.class.getName())
+            .jobIds(jobIds)
+            .pollInterval(Duration.ofMillis(500))
+            .build();
+
+        WaitForJobs.Output run = task.run(TestsUtils.mockRunContext(runContextFactory, task, ImmutableMap.of()));
+
+        assertThat(run.getJobs().size(), is(3));
+        assertThat(run.getJobs().get(0).getJobId(), is(jobIds.get(0)));
+        assertThat(run.getJobs().get(2).getType(), is("QUERY"));
+        assertThat(run.getJobs().get(2).getFailed(), is(false));
+    }
+}